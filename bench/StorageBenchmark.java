@@ -0,0 +1,121 @@
+import main.enums.Status;
+import main.enums.StorageMode;
+import main.manager.InMemoryTaskManager;
+import main.manager.Managers;
+import main.manager.SortedIntHashMap;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+// Сравнение хранилищ задач: прежняя HashMap<Integer, Task> и SortedIntHashMap<Task>,
+// затем память менеджера на подзадачу в каждом StorageMode.
+// Не тест и не входит в тестовые исходники — собирается и запускается вручную поверх скомпилированного src:
+//   javac -cp out -d out-bench bench/StorageBenchmark.java
+//   java -Xmx4g -cp out:out-bench StorageBenchmark [число задач]
+// Печатает память на запись (без самих задач), среднее время поиска по случайному id
+// и память менеджера вместе с задачами, индексами и агрегатами эпиков.
+public class StorageBenchmark {
+    private static final int LOOKUPS = 5_000_000;
+    private static final int SUBTASKS_PER_EPIC = 10;
+    private static final int DISTINCT_DESCRIPTIONS = 16;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Task[] items = new Task[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = new Task("Task " + i, "Description", i + 1, Status.NEW, null, null);
+        }
+        int[] ids = new Random(42).ints(LOOKUPS, 1, count + 1).toArray();
+
+        for (int round = 0; round < 3; round++) {
+            long before = usedMemory();
+            Map<Integer, Task> boxed = new HashMap<>();
+            for (Task task : items) {
+                boxed.put(task.getId(), task);
+            }
+            long boxedBytes = usedMemory() - before;
+            long boxedNanos = measure(() -> {
+                long sum = 0;
+                for (int id : ids) {
+                    sum += boxed.get(id).getId();
+                }
+                return sum;
+            });
+            boxed.clear();
+
+            before = usedMemory();
+            SortedIntHashMap<Task> map = new SortedIntHashMap<>();
+            for (Task task : items) {
+                map.put(task.getId(), task);
+            }
+            long mapBytes = usedMemory() - before;
+            long mapNanos = measure(() -> {
+                long sum = 0;
+                for (int id : ids) {
+                    sum += map.get(id).getId();
+                }
+                return sum;
+            });
+            map.clear();
+
+            System.out.printf("задач: %d%n", count);
+            System.out.printf("  HashMap<Integer, Task>: %5.1f байт на запись, get %5.1f нс%n",
+                    (double) boxedBytes / count, (double) boxedNanos / LOOKUPS);
+            System.out.printf("  SortedIntHashMap<Task>: %5.1f байт на запись, get %5.1f нс%n",
+                    (double) mapBytes / count, (double) mapNanos / LOOKUPS);
+        }
+
+        items = null;
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("менеджер, подзадач: %d%n", count);
+            for (StorageMode mode : StorageMode.values()) {
+                long before = usedMemory();
+                InMemoryTaskManager manager = fill(mode, count);
+                long bytes = usedMemory() - before;
+                System.out.printf("  %-20s: %5.1f байт на подзадачу%n", mode, (double) bytes / manager.getAllSubtasks().size());
+            }
+        }
+    }
+
+    // Подзадачи с временем в целых минутах и повторяющимися описаниями, как у импортированной доски.
+    // Строки создаются заново для каждой задачи — так же, как при разборе файла или JSON
+    private static InMemoryTaskManager fill(StorageMode mode, int count) {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory(), mode);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Epic epic = null;
+        for (int i = 0; i < count; i++) {
+            if (i % SUBTASKS_PER_EPIC == 0) {
+                epic = manager.createEpic(new Epic("Epic " + i, "Epic description", 0, Status.NEW));
+            }
+            String description = new String("Description " + i % DISTINCT_DESCRIPTIONS);
+            manager.createSubtask(new Subtask("Subtask " + i, description, 0, Status.NEW, epic.getId(),
+                    start.plusMinutes(30L * i), Duration.ofMinutes(15)));
+        }
+        return manager;
+    }
+
+    private static long measure(LongSupplier body) {
+        long start = System.nanoTime();
+        long checksum = body.getAsLong();
+        long elapsed = System.nanoTime() - start;
+        if (checksum == 0) {
+            System.out.println(); // не даёт JIT выбросить цикл
+        }
+        return elapsed;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
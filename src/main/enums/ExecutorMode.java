@@ -0,0 +1,8 @@
+package main.enums;
+
+public enum ExecutorMode {
+    DISPATCHER,
+    FIXED,
+    WORK_STEALING,
+    VIRTUAL
+}
@@ -0,0 +1,7 @@
+package main.enums;
+
+public enum FsyncPolicy {
+    NONE,
+    BATCH,
+    EACH
+}
@@ -0,0 +1,7 @@
+package main.enums;
+
+public enum StorageMode {
+    STANDARD,
+    COMPACT,
+    COMPACT_DEDUPLICATED
+}
@@ -1,47 +1,285 @@
 package main.http;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import main.manager.TaskManager;
+import main.models.Task;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public abstract class BaseHttpHandler {
     protected final TaskManager manager;
     protected final Gson gson;
+    protected final HistorySessions sessions;
+    protected final ResponseCache cache;
 
     protected BaseHttpHandler(TaskManager manager, Gson gson) {
+        this(manager, gson, null);
+    }
+
+    protected BaseHttpHandler(TaskManager manager, Gson gson, HistorySessions sessions) {
+        this(manager, gson, sessions, null);
+    }
+
+    protected BaseHttpHandler(TaskManager manager, Gson gson, HistorySessions sessions, ResponseCache cache) {
         this.manager = manager;
         this.gson = gson;
+        this.sessions = sessions;
+        this.cache = cache;
+    }
+
+    // Идентификатор сессии клиента или null, если заголовок не передан
+    protected static String sessionId(HttpExchange exchange) {
+        String value = exchange.getRequestHeaders().getFirst(HistorySessions.SESSION_HEADER);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    // Просмотр по id попадает и в историю сессии клиента
+    protected void recordView(HttpExchange exchange, Task task) {
+        String sessionId = sessionId(exchange);
+        if (sessions != null && sessionId != null) {
+            sessions.add(sessionId, task);
+        }
+    }
+
+    protected void forgetViews(Collection<? extends Task> removed) {
+        if (sessions != null) {
+            removed.forEach(task -> sessions.remove(task.getId()));
+        }
+    }
+
+    protected void forgetView(int id) {
+        if (sessions != null) {
+            sessions.remove(id);
+        }
     }
 
     protected void sendText(HttpExchange exchange, String response, int statusCode) throws IOException {
         byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
-        exchange.sendResponseHeaders(statusCode, bytes.length);
+        startResponse(exchange, statusCode, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    protected void sendBytes(HttpExchange exchange, byte[] bytes, int statusCode) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        startResponse(exchange, statusCode, bytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(bytes);
         }
     }
 
+    // Снимок для sendCachedJson: берётся до чтения задачи из менеджера
+    protected long cacheStamp(int id) {
+        return cache == null ? 0 : cache.stamp(id);
+    }
+
+    // Задача по id из кэша готовых байт; при промахе сериализуется один раз и кладётся в кэш.
+    // stamp — cacheStamp(id) до чтения задачи
+    protected void sendCachedJson(HttpExchange exchange, Task task, long stamp) throws IOException {
+        if (cache == null) {
+            sendJson(exchange, task, 200);
+            return;
+        }
+        byte[] bytes = cache.get(task.getId());
+        if (bytes == null) {
+            bytes = gson.toJson(task, task.getClass()).getBytes(StandardCharsets.UTF_8);
+            cache.put(task.getId(), stamp, bytes);
+        }
+        sendBytes(exchange, bytes, 200);
+    }
+
+    // Список задач из готовых байт кэша по id, как отдал бы sendJsonList; недостающие сериализуются
+    // и кладутся в кэш. version — manager.getVersion() до чтения items: если менеджер с тех пор менялся,
+    // сериализованные сейчас ответы могут быть устаревшими и в кэш не попадают
+    protected void sendCachedJsonList(HttpExchange exchange, List<? extends Task> items, long version)
+            throws IOException {
+        if (cache == null) {
+            sendJsonList(exchange, items, 200);
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        buffer.write('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                buffer.write(',');
+            }
+            Task task = items.get(i);
+            byte[] bytes = cache.get(task.getId());
+            if (bytes == null) {
+                bytes = gson.toJson(task, task.getClass()).getBytes(StandardCharsets.UTF_8);
+                long stamp = cache.stamp(task.getId());
+                if (manager.getVersion() == version) {
+                    cache.put(task.getId(), stamp, bytes);
+                }
+            }
+            buffer.write(bytes);
+        }
+        buffer.write(']');
+        sendBytes(exchange, buffer.toByteArray(), 200);
+    }
+
+    // Потоковый ответ: JSON пишется прямо в тело ответа с chunked-кодированием,
+    // без промежуточной строки и массива байт, и начинает уходить клиенту до конца сериализации
+    protected void sendJson(HttpExchange exchange, Object value, int statusCode) throws IOException {
+        streamJson(exchange, statusCode, writer -> gson.toJson(value, value.getClass(), writer));
+    }
+
+    // Списки пишутся поэлементно — так же, как их сериализует gson.toJson(list)
+    protected void sendJsonList(HttpExchange exchange, Collection<?> items, int statusCode) throws IOException {
+        streamJson(exchange, statusCode, writer -> {
+            writer.beginArray();
+            for (Object item : items) {
+                gson.toJson(item, item.getClass(), writer);
+            }
+            writer.endArray();
+        });
+    }
+
+    // Страница списка: при полной странице курсор следующей передаётся в заголовке X-Next-Cursor,
+    // при fields= у каждого элемента остаются только перечисленные поля
+    protected void sendList(HttpExchange exchange, ListQuery query, List<? extends Task> items,
+                            Function<Task, String> cursorOf) throws IOException {
+        String nextCursor = nextCursor(query, items, cursorOf);
+        if (nextCursor != null) {
+            exchange.getResponseHeaders().add(ListQuery.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        if (query.fields() == null) {
+            sendJsonList(exchange, items, 200);
+            return;
+        }
+
+        streamJson(exchange, 200, writer -> writeList(writer, query.fields(), items));
+    }
+
+    // Список с кэшем по строке запроса и версии менеджера: items читается только при промахе.
+    // Длинные списки не кэшируются и отдаются потоком, как в sendList
+    protected void sendCachedList(HttpExchange exchange, ListQuery query, Supplier<List<? extends Task>> items,
+                                  Function<Task, String> cursorOf) throws IOException {
+        if (cache == null) {
+            sendList(exchange, query, items.get(), cursorOf);
+            return;
+        }
+        String key = exchange.getRequestURI().toString();
+        ResponseCache.Entry cached = cache.getList(key);
+        if (cached != null) {
+            if (cached.getNextCursor() != null) {
+                exchange.getResponseHeaders().add(ListQuery.NEXT_CURSOR_HEADER, cached.getNextCursor());
+            }
+            sendBytes(exchange, cached.getBytes(), 200);
+            return;
+        }
+
+        long version = manager.getVersion();
+        List<? extends Task> list = items.get();
+        if (list.size() > ResponseCache.MAX_LIST_SIZE) {
+            sendList(exchange, query, list, cursorOf);
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (JsonWriter writer = gson.newJsonWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8))) {
+            writeList(writer, query.fields(), list);
+        }
+        byte[] bytes = buffer.toByteArray();
+        String nextCursor = nextCursor(query, list, cursorOf);
+        cache.putList(key, version, nextCursor, bytes);
+        if (nextCursor != null) {
+            exchange.getResponseHeaders().add(ListQuery.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        sendBytes(exchange, bytes, 200);
+    }
+
+    private static String nextCursor(ListQuery query, List<? extends Task> items, Function<Task, String> cursorOf) {
+        if (query.isPaged() && !items.isEmpty() && items.size() == query.limit()) {
+            return cursorOf.apply(items.getLast());
+        }
+        return null;
+    }
+
+    // При fields == null элементы пишутся целиком, иначе только перечисленные поля
+    private void writeList(JsonWriter writer, Set<String> fields, List<? extends Task> items) throws IOException {
+        writer.beginArray();
+        if (fields == null) {
+            for (Task item : items) {
+                gson.toJson(item, item.getClass(), writer);
+            }
+        } else {
+            for (Task item : items) {
+                JsonObject full = gson.toJsonTree(item, item.getClass()).getAsJsonObject();
+                JsonObject projected = new JsonObject();
+                for (String field : fields) {
+                    if (full.has(field)) {
+                        projected.add(field, full.get(field));
+                    }
+                }
+                gson.toJson(projected, writer);
+            }
+        }
+        writer.endArray();
+    }
+
+    private interface JsonBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    // После заголовков статус уже не изменить. При ошибке сериализации поток не закрывается:
+    // закрытие дописало бы завершающий chunk, и клиент получил бы обрезанный JSON как успешный ответ.
+    // Исключение уходит из handle(), и HttpServer разрывает соединение
+    private void streamJson(HttpExchange exchange, int statusCode, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        startResponse(exchange, statusCode, 0); // длина заранее неизвестна
+        JsonWriter writer = gson.newJsonWriter(
+                new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)));
+        body.write(writer);
+        writer.close();
+    }
+
+    // Ответ об ошибке после начала потокового ответа невозможен — тогда запрос прерывается
+    private static void startResponse(HttpExchange exchange, int statusCode, long length) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            throw new IOException("Ответ уже начат, статус " + statusCode + " не отправлен");
+        }
+        exchange.sendResponseHeaders(statusCode, length);
+    }
+
     protected void sendNotFound(HttpExchange exchange, String message) throws IOException {
         byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(404, bytes.length);
+        startResponse(exchange, 404, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    protected void sendBadRequest(HttpExchange exchange, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        startResponse(exchange, 400, bytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(bytes);
         }
     }
 
     protected void sendNoContent(HttpExchange exchange) throws IOException {
-        exchange.sendResponseHeaders(204, -1); // тело не требуется
+        startResponse(exchange, 204, -1); // тело не требуется
         exchange.close();
     }
 
     protected void sendError(HttpExchange exchange, String message) throws IOException {
         byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(500, bytes.length);
+        startResponse(exchange, 500, bytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(bytes);
         }
@@ -50,7 +288,7 @@ public abstract class BaseHttpHandler {
     protected void sendMethodNotAllowed(HttpExchange exchange, String method) throws IOException {
         String message = "Метод " + method + " не поддерживается";
         byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(405, bytes.length);
+        startResponse(exchange, 405, bytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(bytes);
         }
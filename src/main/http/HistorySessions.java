@@ -0,0 +1,251 @@
+package main.http;
+
+import main.manager.HistoryManager;
+import main.manager.InMemoryHistoryManager;
+import main.models.Task;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// История просмотров отдельно для каждого клиента (заголовок X-Session-Id).
+// Сессии лежат в ConcurrentHashMap, история каждой защищена своей блокировкой, поэтому клиенты не ждут друг друга.
+// При превышении числа сессий вытесняется давно не использованная: каждое обращение дописывается в очередь
+// обращений, и вытеснение берёт из её головы первую сессию, к которой с тех пор не обращались, — за O(1)
+// в среднем, без обхода всех сессий. По истечении времени простоя сессия удаляется.
+// История сессии ограничена по размеру. Удаление задачи не обходит сессии: оно попадает в журнал удалений,
+// и сессия выбрасывает удалённые id при следующем обращении к ней.
+public class HistorySessions {
+    public static final String SESSION_HEADER = "X-Session-Id";
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    public static final int DEFAULT_HISTORY_SIZE = 100;
+    // Пока обращений в очереди меньше, устаревшие не вычищаются
+    private static final int MIN_PRUNE_USES = 1_024;
+
+    private static final class Session {
+        final String id;
+        final HistoryManager history;
+        volatile long lastAccess;
+        // Номер последнего обращения: по нему устаревшие записи очереди обращений отличаются от текущей
+        volatile long lastUse;
+        // Номер последнего учтённого удаления; меняется под блокировкой сессии
+        long seenRemoval;
+
+        Session(String id, HistoryManager history, long lastAccess, long seenRemoval) {
+            this.id = id;
+            this.history = history;
+            this.lastAccess = lastAccess;
+            this.seenRemoval = seenRemoval;
+        }
+    }
+
+    private record Removal(int id, long number, long time) {
+    }
+
+    // Обращение к сессии; устарело, если к ней обращались позже или её уже нет в sessions
+    private record Use(Session session, long number) {
+    }
+
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private final int historySize;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong uses = new AtomicLong();
+    // Обращения в порядке времени; устаревшие пропускаются при вытеснении и вычищаются, когда их слишком много
+    private final ConcurrentLinkedQueue<Use> useOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedUses = new AtomicInteger();
+    private final AtomicBoolean pruningUses = new AtomicBoolean();
+    private volatile long lastSweep;
+    // Журнал удалений: id -> номер последнего удаления. Запись хранится время простоя —
+    // сессия, не обратившаяся за это время, истекает и журнал ей уже не нужен
+    private final ConcurrentHashMap<Integer, Long> removed = new ConcurrentHashMap<>();
+    private final ArrayDeque<Removal> removalOrder = new ArrayDeque<>();
+    // Номер последнего удаления, записанного в removed; пишется под блокировкой removalOrder после записи в removed
+    private volatile long removals;
+
+    public HistorySessions() {
+        this(DEFAULT_MAX_SESSIONS, DEFAULT_IDLE_TIMEOUT, DEFAULT_HISTORY_SIZE);
+    }
+
+    public HistorySessions(int maxSessions, Duration idleTimeout, int historySize) {
+        this(maxSessions, idleTimeout, historySize, System::nanoTime);
+    }
+
+    public HistorySessions(int maxSessions, Duration idleTimeout, int historySize, LongSupplier clock) {
+        if (maxSessions <= 0 || historySize <= 0) {
+            throw new IllegalArgumentException("Число сессий и размер истории должны быть положительными");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.historySize = historySize;
+        this.clock = clock;
+        this.lastSweep = clock.getAsLong();
+    }
+
+    public void add(String sessionId, Task task) {
+        if (task == null) return;
+
+        long now = clock.getAsLong();
+        boolean[] created = new boolean[1];
+        Session session = sessions.compute(sessionId, (id, current) -> {
+            if (current != null && !isExpired(current, now)) {
+                return current;
+            }
+            created[0] = true;
+            return new Session(id, new InMemoryHistoryManager(historySize), now, removals);
+        });
+        synchronized (session) {
+            touch(session, now);
+            session.history.add(task);
+        }
+        if (created[0]) {
+            evictOverflow(session, now);
+        }
+    }
+
+    // История сессии; для неизвестной или истёкшей сессии — пустой список
+    public List<Task> getHistory(String sessionId) {
+        Session session = live(sessionId, clock.getAsLong());
+        if (session == null) {
+            return new ArrayList<>();
+        }
+        synchronized (session) {
+            return session.history.getHistory();
+        }
+    }
+
+    public List<Task> getHistory(String sessionId, int offset, int limit) {
+        Session session = live(sessionId, clock.getAsLong());
+        if (session == null) {
+            return new ArrayList<>();
+        }
+        synchronized (session) {
+            return session.history.getHistory(offset, limit);
+        }
+    }
+
+    // Удалённая задача пропадает из истории всех сессий при их следующем обращении
+    public void remove(int id) {
+        long now = clock.getAsLong();
+        synchronized (removalOrder) {
+            long number = removals + 1;
+            removed.put(id, number);
+            removalOrder.addLast(new Removal(id, number, now));
+            removals = number;
+            while (now - removalOrder.getFirst().time() >= idleTimeoutNanos) {
+                Removal oldest = removalOrder.removeFirst();
+                removed.remove(oldest.id(), oldest.number());
+            }
+        }
+    }
+
+    public int size() {
+        sweep(clock.getAsLong());
+        return sessions.size();
+    }
+
+    // Живая сессия с учтёнными удалениями; истёкшая удаляется
+    private Session live(String sessionId, long now) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return null;
+        }
+        if (isExpired(session, now)) {
+            sessions.remove(sessionId, session);
+            return null;
+        }
+        synchronized (session) {
+            touch(session, now);
+        }
+        return session;
+    }
+
+    // Вызывается под блокировкой сессии: отмечает обращение и выбрасывает задачи, удалённые с прошлого обращения
+    private void touch(Session session, long now) {
+        session.lastAccess = now;
+        long use = uses.incrementAndGet();
+        session.lastUse = use;
+        useOrder.add(new Use(session, use));
+        if (queuedUses.incrementAndGet() > Math.max(2 * sessions.size(), MIN_PRUNE_USES)) {
+            pruneUses();
+        }
+        long latest = removals;
+        if (session.seenRemoval == latest) {
+            return;
+        }
+        for (Task task : session.history.getHistory()) {
+            Long number = removed.get(task.getId());
+            if (number != null && number > session.seenRemoval) {
+                session.history.remove(task.getId());
+            }
+        }
+        session.seenRemoval = latest;
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return now - session.lastAccess >= idleTimeoutNanos;
+    }
+
+    // Новая сессия: раз в время простоя удаляются истёкшие, а сверх maxSessions вытесняются давно не использованные
+    private void evictOverflow(Session created, long now) {
+        if (now - lastSweep >= idleTimeoutNanos) {
+            sweep(now);
+        }
+        while (sessions.size() > maxSessions) {
+            Use eldest = useOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            queuedUses.decrementAndGet();
+            Session session = eldest.session();
+            if (!isCurrent(eldest)) {
+                continue;
+            }
+            if (session == created) {
+                // Остальные обращения устарели или добавлены другими потоками позже — вытеснять некого
+                useOrder.add(eldest);
+                queuedUses.incrementAndGet();
+                return;
+            }
+            sessions.remove(session.id, session);
+        }
+    }
+
+    private boolean isCurrent(Use use) {
+        Session session = use.session();
+        return session.lastUse == use.number() && sessions.get(session.id) == session;
+    }
+
+    // Вычищает устаревшие обращения: очередь остаётся пропорциональной числу сессий, а не числу запросов
+    private void pruneUses() {
+        if (!pruningUses.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<Use> iterator = useOrder.iterator();
+            while (iterator.hasNext()) {
+                if (!isCurrent(iterator.next())) {
+                    iterator.remove();
+                    queuedUses.decrementAndGet();
+                }
+            }
+        } finally {
+            pruningUses.set(false);
+        }
+    }
+
+    private void sweep(long now) {
+        lastSweep = now;
+        sessions.values().removeIf(session -> isExpired(session, now));
+    }
+}
@@ -1,41 +1,93 @@
 package main.http;
 
 import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpServer;
+import main.enums.ExecutorMode;
 import main.http.handlers.*;
+import main.manager.ConcurrentTaskManager;
 import main.manager.Managers;
 import main.manager.TaskManager;
+import main.models.CompactSubtask;
+import main.models.CompactTask;
+import main.models.SortedIntSet;
+import main.models.Task;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class HttpTaskServer {
 
-    private static final int PORT = 8080;
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_BACKLOG = 0; // 0 — значение по умолчанию системы
     private final HttpServer server;
+    private final ExecutorService executor;
     private final Gson gson;
     private final TaskManager manager;
+    private final HistorySessions sessions;
+    private final ResponseCache cache;
 
     // Конструктор с передачей менеджера
     public HttpTaskServer(TaskManager manager) throws IOException {
+        this(manager, DEFAULT_PORT, DEFAULT_BACKLOG, ExecutorMode.DISPATCHER);
+    }
+
+    // В многопоточных режимах нужен потокобезопасный ConcurrentTaskManager (Managers.getConcurrent()),
+    // иначе IllegalArgumentException: обработчики вызывают менеджер из нескольких потоков сразу
+    public HttpTaskServer(TaskManager manager, int port, int backlog, ExecutorMode mode) throws IOException {
+        this(manager, port, backlog, mode, new HistorySessions());
+    }
+
+    public HttpTaskServer(TaskManager manager, int port, int backlog, ExecutorMode mode,
+                          HistorySessions sessions) throws IOException {
+        if (mode != ExecutorMode.DISPATCHER && !(manager instanceof ConcurrentTaskManager)) {
+            throw new IllegalArgumentException("Режим " + mode + " требует потокобезопасного менеджера "
+                    + "(Managers.getConcurrent()), передан " + manager.getClass().getSimpleName());
+        }
         this.gson = getGson(); // <-- здесь
         this.manager = manager;
-        this.server = HttpServer.create(new InetSocketAddress(PORT), 0);
-
-        server.createContext("/tasks", new TaskHandler(manager, gson));
-        server.createContext("/subtasks", new SubtaskHandler(manager, gson));
-        server.createContext("/epics", new EpicHandler(manager, gson));
-        server.createContext("/history", new HistoryHandler(manager, gson));
+        this.sessions = sessions;
+        this.cache = new ResponseCache(manager);
+        this.server = HttpServer.create(new InetSocketAddress(port), backlog);
+        this.executor = createExecutor(mode);
+        if (executor != null) {
+            server.setExecutor(executor);
+        }
+
+        server.createContext("/tasks", new TaskHandler(manager, gson, sessions, cache));
+        server.createContext("/subtasks", new SubtaskHandler(manager, gson, sessions, cache));
+        server.createContext("/epics", new EpicHandler(manager, gson, sessions, cache));
+        server.createContext("/history", new HistoryHandler(manager, gson, sessions));
         server.createContext("/prioritized", new PrioritizedHandler(manager, gson));
+        server.createContext("/hot", new HotHandler(manager, gson, cache));
     }
 
     public HttpTaskServer() throws IOException {
         this(Managers.getDefault());
     }
 
+    private static ExecutorService createExecutor(ExecutorMode mode) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        switch (mode) {
+            case FIXED:
+                return Executors.newFixedThreadPool(threads);
+            case WORK_STEALING:
+                return Executors.newWorkStealingPool(threads);
+            case VIRTUAL:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            case DISPATCHER:
+            default:
+                return null; // запросы обрабатываются потоком-диспетчером HttpServer
+        }
+    }
+
     //gpt помог с этим :)
     public static Gson getGson() {
         GsonBuilder builder = new GsonBuilder();
@@ -52,22 +104,74 @@ public class HttpTaskServer {
         builder.registerTypeAdapter(Duration.class, (JsonDeserializer<Duration>) (json, typeOfT, context) ->
                 Duration.ofMinutes(json.getAsLong()));
 
+        // Подзадачи эпика — прежним JSON-массивом чисел
+        builder.registerTypeAdapter(SortedIntSet.class, (JsonSerializer<SortedIntSet>) (src, typeOfSrc, context) -> {
+            JsonArray array = new JsonArray(src.size());
+            src.forEach(array::add);
+            return array;
+        });
+        builder.registerTypeAdapter(SortedIntSet.class, (JsonDeserializer<SortedIntSet>) (json, typeOfT, context) -> {
+            SortedIntSet set = new SortedIntSet();
+            for (JsonElement element : json.getAsJsonArray()) {
+                set.add(element.getAsInt());
+            }
+            return set;
+        });
+
+        // Компактные задачи — тем же JSON, что и обычные: пишется их обычная копия
+        builder.registerTypeAdapterFactory(new TypeAdapterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                Class<? super T> raw = type.getRawType();
+                if (raw != CompactTask.class && raw != CompactSubtask.class) {
+                    return null;
+                }
+                TypeAdapter<Task> plain = (TypeAdapter<Task>) gson.getAdapter(raw.getSuperclass());
+                return (TypeAdapter<T>) new TypeAdapter<Task>() {
+                    @Override
+                    public void write(JsonWriter out, Task value) throws IOException {
+                        plain.write(out, value == null ? null : value.copy());
+                    }
+
+                    @Override
+                    public Task read(JsonReader in) throws IOException {
+                        return plain.read(in);
+                    }
+                };
+            }
+        });
+
         return builder.create();
     }
 
 
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
     public void start() {
-        System.out.println("HTTP-сервер запущен на порту " + PORT);
+        System.out.println("HTTP-сервер запущен на порту " + getPort());
         server.start();
     }
 
     public void stop() {
         server.stop(0);
+        cache.close();
+        if (executor != null) {
+            executor.shutdown();
+        }
         System.out.println("HTTP-сервер остановлен.");
     }
 
+    // Аргументы: [порт] [backlog] [DISPATCHER|FIXED|WORK_STEALING|VIRTUAL]
     public static void main(String[] args) throws IOException {
-        HttpTaskServer httpTaskServer = new HttpTaskServer();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int backlog = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BACKLOG;
+        ExecutorMode mode = args.length > 2 ? ExecutorMode.valueOf(args[2].toUpperCase()) : ExecutorMode.VIRTUAL;
+
+        TaskManager manager = mode == ExecutorMode.DISPATCHER ? Managers.getDefault() : Managers.getConcurrent();
+        HttpTaskServer httpTaskServer = new HttpTaskServer(manager, port, backlog, mode);
         httpTaskServer.start();
     }
 }
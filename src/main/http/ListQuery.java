@@ -0,0 +1,170 @@
+package main.http;
+
+import main.exceptions.BadRequestException;
+import main.models.Task;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Параметры списка: limit — размер страницы, cursor — позиция после последнего элемента
+// предыдущей страницы (из заголовка X-Next-Cursor), fields — перечень полей через запятую.
+// Курсор по id — просто id; курсор /prioritized — "startTime~id" или "~id" для задач без времени.
+// from/to — окно времени для /prioritized; пропущенная граница означает открытое окно с этой стороны.
+// Курсор /history — число уже полученных записей от самой новой.
+public class ListQuery {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final char CURSOR_SEPARATOR = '~';
+
+    private int limit = Integer.MAX_VALUE;
+    private String cursor;
+    private Set<String> fields;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public static ListQuery parse(URI uri) {
+        ListQuery query = new ListQuery();
+        String raw = uri.getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            switch (name) {
+                case "limit":
+                    query.limit = parsePositive(value);
+                    break;
+                case "cursor":
+                    query.cursor = value.isEmpty() ? null : value;
+                    break;
+                case "fields":
+                    query.fields = new LinkedHashSet<>();
+                    for (String field : value.split(",")) {
+                        if (!field.isBlank()) {
+                            query.fields.add(field.trim());
+                        }
+                    }
+                    break;
+                case "from":
+                    query.from = parseTime(value);
+                    break;
+                case "to":
+                    query.to = parseTime(value);
+                    break;
+                default:
+                    break; // посторонние параметры игнорируются
+            }
+        }
+        return query;
+    }
+
+    private static int parsePositive(String value) {
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // ниже
+        }
+        throw new BadRequestException("Некорректный limit: " + value);
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Некорректное время: " + value);
+        }
+    }
+
+    public boolean hasTimeWindow() {
+        return from != null || to != null;
+    }
+
+    public LocalDateTime from() {
+        return from != null ? from : LocalDateTime.MIN;
+    }
+
+    public LocalDateTime to() {
+        return to != null ? to : LocalDateTime.MAX;
+    }
+
+    // Нужна ли постраничная выборка; без limit и cursor список отдаётся целиком
+    public boolean isPaged() {
+        return limit != Integer.MAX_VALUE || cursor != null;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public Set<String> fields() {
+        return fields;
+    }
+
+    public int afterId() {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный cursor: " + cursor);
+        }
+    }
+
+    public int offset() {
+        int offset = afterId();
+        if (offset < 0) {
+            throw new BadRequestException("Некорректный cursor: " + cursor);
+        }
+        return offset;
+    }
+
+    public LocalDateTime afterStartTime() {
+        if (cursor == null || cursor.charAt(0) == CURSOR_SEPARATOR) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(cursor.substring(0, separatorIndex()));
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Некорректный cursor: " + cursor);
+        }
+    }
+
+    public int afterPrioritizedId() {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(cursor.substring(separatorIndex() + 1));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный cursor: " + cursor);
+        }
+    }
+
+    private int separatorIndex() {
+        int index = cursor.indexOf(CURSOR_SEPARATOR);
+        if (index < 0) {
+            throw new BadRequestException("Некорректный cursor: " + cursor);
+        }
+        return index;
+    }
+
+    public static String idCursor(Task task) {
+        return String.valueOf(task.getId());
+    }
+
+    public static String prioritizedCursor(Task task) {
+        String start = task.getStartTime() == null ? "" : task.getStartTime().toString();
+        return start + CURSOR_SEPARATOR + task.getId();
+    }
+}
@@ -0,0 +1,185 @@
+package main.http;
+
+import main.manager.TaskManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Готовые UTF-8 байты ответов GET, чтобы не сериализовать неизменившиеся задачи заново.
+// Задача по id хранится до её изменения: менеджер сообщает id каждой созданной, обновлённой или удалённой задачи.
+// Ответ по id сверяется со счётчиком изменений своей полосы id, поэтому запись других задач не мешает его сохранить.
+// Список хранится вместе с версией менеджера и годится, пока версия не изменилась.
+// Объём ограничен суммарным размером байт. Какие задачи держать, решает частота запросов из менеджера
+// (getAccessFrequency, как в TinyLFU): вытесняется самая редко запрашиваемая из EVICTION_SAMPLE давних записей,
+// а ответ задачи не попадает в кэш, если ради него пришлось бы вытеснить задачу, которую запрашивают чаще.
+// Списки частоты не имеют и вытесняются первыми.
+public class ResponseCache implements AutoCloseable {
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    // Списки длиннее отдаются потоком без кэширования
+    public static final int MAX_LIST_SIZE = 1_000;
+    // Число полос счётчиков изменений; id одной полосы изредка мешают друг другу, но память постоянна
+    private static final int STRIPES = 4_096;
+    // Сколько самых давних записей сравнивается по частоте при выборе вытесняемой
+    private static final int EVICTION_SAMPLE = 8;
+
+    public static final class Entry {
+        private final long version;
+        private final String nextCursor;
+        private final byte[] bytes;
+
+        private Entry(long version, String nextCursor, byte[] bytes) {
+            this.version = version;
+            this.nextCursor = nextCursor;
+            this.bytes = bytes;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+    }
+
+    private final TaskManager manager;
+    private final long maxBytes;
+    private final IntConsumer listener = this::invalidate;
+    // Ключ — Integer для задачи по id или строка запроса для списка
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final long[] stamps = new long[STRIPES];
+    private long bytes;
+
+    public ResponseCache(TaskManager manager) {
+        this(manager, DEFAULT_MAX_BYTES);
+    }
+
+    public ResponseCache(TaskManager manager, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным: " + maxBytes);
+        }
+        this.manager = manager;
+        this.maxBytes = maxBytes;
+        manager.addChangeListener(listener);
+    }
+
+    public synchronized byte[] get(int id) {
+        Entry entry = entries.get(id);
+        return entry == null ? null : entry.bytes;
+    }
+
+    // Снимок счётчика изменений id; берётся до чтения задачи и передаётся в put
+    public synchronized long stamp(int id) {
+        return stamps[stripe(id)];
+    }
+
+    // stamp — stamp(id) до чтения задачи: если с тех пор задача изменилась, ответ может быть устаревшим
+    public synchronized void put(int id, long stamp, byte[] value) {
+        if (stamps[stripe(id)] == stamp) {
+            store(id, new Entry(stamp, null, value));
+        }
+    }
+
+    public synchronized Entry getList(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version != manager.getVersion()) {
+            drop(key);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void putList(String key, long version, String nextCursor, byte[] value) {
+        if (manager.getVersion() == version) {
+            store(key, new Entry(version, nextCursor, value));
+        }
+    }
+
+    public synchronized void invalidate(int id) {
+        stamps[stripe(id)]++;
+        drop(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() {
+        manager.removeChangeListener(listener);
+        synchronized (this) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    private void store(Object key, Entry entry) {
+        if (entry.bytes.length > maxBytes) {
+            return;
+        }
+        drop(key);
+        List<Object> victims = victims(bytes + entry.bytes.length - maxBytes);
+        if (key instanceof Integer) {
+            int frequency = frequencyOf(key);
+            for (Object victim : victims) {
+                if (frequencyOf(victim) > frequency) {
+                    return; // место занято более востребованными задачами
+                }
+            }
+        }
+        victims.forEach(this::drop);
+        entries.put(key, entry);
+        bytes += entry.bytes.length;
+    }
+
+    // Записи, которые нужно вытеснить ради needed байт: каждый раз самая редкая из EVICTION_SAMPLE самых давних,
+    // при равной частоте — более давняя
+    private List<Object> victims(long needed) {
+        List<Object> victims = new ArrayList<>();
+        long freed = 0;
+        while (freed < needed) {
+            Object coldest = null;
+            int coldestFrequency = Integer.MAX_VALUE;
+            long coldestBytes = 0;
+            int seen = 0;
+            for (Map.Entry<Object, Entry> candidate : entries.entrySet()) {
+                if (victims.contains(candidate.getKey())) {
+                    continue;
+                }
+                int frequency = frequencyOf(candidate.getKey());
+                if (frequency < coldestFrequency) {
+                    coldest = candidate.getKey();
+                    coldestFrequency = frequency;
+                    coldestBytes = candidate.getValue().bytes.length;
+                }
+                if (++seen == EVICTION_SAMPLE) {
+                    break;
+                }
+            }
+            victims.add(coldest);
+            freed += coldestBytes;
+        }
+        return victims;
+    }
+
+    private int frequencyOf(Object key) {
+        return key instanceof Integer id ? manager.getAccessFrequency(id) : -1;
+    }
+
+    private static int stripe(int id) {
+        return (id * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(STRIPES));
+    }
+
+    private void drop(Object key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.bytes.length;
+        }
+    }
+}
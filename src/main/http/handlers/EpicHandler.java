@@ -3,7 +3,11 @@ package main.http.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import main.exceptions.BadRequestException;
 import main.http.BaseHttpHandler;
+import main.http.HistorySessions;
+import main.http.ListQuery;
+import main.http.ResponseCache;
 import main.manager.TaskManager;
 import main.models.Epic;
 import main.models.Subtask;
@@ -12,12 +16,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class EpicHandler extends BaseHttpHandler implements HttpHandler {
 
-    public EpicHandler(TaskManager manager, Gson gson) {
-        super(manager, gson);
+    public EpicHandler(TaskManager manager, Gson gson, HistorySessions sessions, ResponseCache cache) {
+        super(manager, gson, sessions, cache);
     }
 
     @Override
@@ -29,40 +32,46 @@ public class EpicHandler extends BaseHttpHandler implements HttpHandler {
 
             if ("GET".equals(method)) {
                 if (parts.length == 2) { // /epics
-                    sendText(h, gson.toJson(manager.getAllEpics()), 200);
+                    ListQuery query = ListQuery.parse(h.getRequestURI());
+                    sendCachedList(h, query, () -> query.isPaged() ? manager.getEpics(query.afterId(), query.limit())
+                            : manager.getAllEpics(), ListQuery::idCursor);
                 } else if (parts.length == 3) { // /epics/{id}
                     int id = Integer.parseInt(parts[2]);
+                    long stamp = cacheStamp(id);
                     Epic epic = manager.getEpic(id);
                     if (epic == null) {
                         sendNotFound(h, "Эпик с id=" + id + " не найден");
                     } else {
-                        sendText(h, gson.toJson(epic), 200);
+                        recordView(h, epic);
+                        sendCachedJson(h, epic, stamp);
                     }
                 } else if (parts.length == 4 && "subtasks".equals(parts[3])) { // /epics/{id}/subtasks
                     int id = Integer.parseInt(parts[2]);
-                    List<Subtask> subtasks = manager.getAllSubtasks().stream()
-                            .filter(st -> st.getEpicId() == id)
-                            .collect(Collectors.toList());
-                    sendText(h, gson.toJson(subtasks), 200);
+                    List<Subtask> subtasks = manager.getEpicSubtasks(id);
+                    sendJsonList(h, subtasks, 200);
                 }
             } else if ("POST".equals(method)) {
                 InputStream is = h.getRequestBody();
                 String body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
                 Epic epic = gson.fromJson(body, Epic.class);
                 if (epic.getId() == 0) {
-                    manager.createEpic(epic);
-                    sendText(h, gson.toJson(epic), 201);
+                    sendJson(h, manager.createEpic(epic), 201);
                 } else {
                     manager.updateEpic(epic);
-                    sendText(h, gson.toJson(epic), 200);
+                    sendJson(h, epic, 200);
                 }
             } else if ("DELETE".equals(method) && parts.length == 3) {
                 int id = Integer.parseInt(parts[2]);
+                List<Subtask> subtasks = manager.getEpicSubtasks(id); // удаляются вместе с эпиком
                 manager.deleteEpic(id);
+                forgetView(id);
+                forgetViews(subtasks);
                 sendNoContent(h);
             } else {
                 sendMethodNotAllowed(h, method);
             }
+        } catch (BadRequestException e) {
+            sendBadRequest(h, e.getMessage());
         } catch (Exception e) {
             sendError(h, e.getMessage());
         }
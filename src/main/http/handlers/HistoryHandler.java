@@ -3,25 +3,44 @@ package main.http.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import main.exceptions.BadRequestException;
 import main.http.BaseHttpHandler;
+import main.http.HistorySessions;
+import main.http.ListQuery;
 import main.manager.TaskManager;
+import main.models.Task;
 
 import java.io.IOException;
+import java.util.List;
 
 public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
 
-    public HistoryHandler(TaskManager manager, Gson gson) {
-        super(manager, gson);
+    public HistoryHandler(TaskManager manager, Gson gson, HistorySessions sessions) {
+        super(manager, gson, sessions);
     }
 
     @Override
     public void handle(HttpExchange h) throws IOException {
         try {
             if ("GET".equals(h.getRequestMethod())) {
-                sendText(h, gson.toJson(manager.getHistory()), 200);
+                // С X-Session-Id — история этого клиента, без него — общая история менеджера
+                String sessionId = sessionId(h);
+                ListQuery query = ListQuery.parse(h.getRequestURI());
+                if (!query.isPaged()) {
+                    sendJsonList(h, sessionId != null ? sessions.getHistory(sessionId) : manager.getHistory(), 200);
+                    return;
+                }
+                // Постранично — от последних просмотров к первым, без копирования всей истории
+                int offset = query.offset();
+                List<Task> page = sessionId != null
+                        ? sessions.getHistory(sessionId, offset, query.limit())
+                        : manager.getHistory(offset, query.limit());
+                sendList(h, query, page, last -> String.valueOf(offset + page.size()));
             } else {
                 sendMethodNotAllowed(h, h.getRequestMethod());
             }
+        } catch (BadRequestException e) {
+            sendBadRequest(h, e.getMessage());
         } catch (Exception e) {
             sendError(h, e.getMessage());
         }
@@ -0,0 +1,44 @@
+package main.http.handlers;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import main.exceptions.BadRequestException;
+import main.http.BaseHttpHandler;
+import main.http.ListQuery;
+import main.http.ResponseCache;
+import main.manager.TaskManager;
+
+import java.io.IOException;
+
+// Самые запрашиваемые задачи, от самой частой; /hot?limit=N — сколько вернуть.
+// Задачи отдаются готовыми байтами из кэша ответов по id — горячие задачи в нём и держатся
+public class HotHandler extends BaseHttpHandler implements HttpHandler {
+    public static final int DEFAULT_LIMIT = 10;
+
+    public HotHandler(TaskManager manager, Gson gson) {
+        this(manager, gson, null);
+    }
+
+    public HotHandler(TaskManager manager, Gson gson, ResponseCache cache) {
+        super(manager, gson, null, cache);
+    }
+
+    @Override
+    public void handle(HttpExchange h) throws IOException {
+        try {
+            if ("GET".equals(h.getRequestMethod())) {
+                ListQuery query = ListQuery.parse(h.getRequestURI());
+                int limit = query.limit() == Integer.MAX_VALUE ? DEFAULT_LIMIT : query.limit();
+                long version = manager.getVersion();
+                sendCachedJsonList(h, manager.getHotTasks(limit), version);
+            } else {
+                sendMethodNotAllowed(h, h.getRequestMethod());
+            }
+        } catch (BadRequestException e) {
+            sendBadRequest(h, e.getMessage());
+        } catch (Exception e) {
+            sendError(h, e.getMessage());
+        }
+    }
+}
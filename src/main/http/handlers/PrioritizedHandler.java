@@ -3,10 +3,14 @@ package main.http.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import main.exceptions.BadRequestException;
 import main.http.BaseHttpHandler;
+import main.http.ListQuery;
 import main.manager.TaskManager;
+import main.models.Task;
 
 import java.io.IOException;
+import java.util.List;
 
 public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
 
@@ -18,10 +22,25 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
     public void handle(HttpExchange h) throws IOException {
         try {
             if ("GET".equals(h.getRequestMethod())) {
-                sendText(h, gson.toJson(manager.getPrioritizedTasks()), 200);
+                ListQuery query = ListQuery.parse(h.getRequestURI());
+                List<Task> tasks;
+                if (query.hasTimeWindow() && query.isPaged()) {
+                    tasks = manager.getPrioritizedTasksBetween(query.from(), query.to(),
+                            query.afterStartTime(), query.afterPrioritizedId(), query.limit());
+                } else if (query.hasTimeWindow()) {
+                    tasks = manager.getPrioritizedTasksBetween(query.from(), query.to());
+                } else if (query.isPaged()) {
+                    tasks = manager.getPrioritizedTasks(query.afterStartTime(), query.afterPrioritizedId(),
+                            query.limit());
+                } else {
+                    tasks = manager.getPrioritizedTasks();
+                }
+                sendList(h, query, tasks, ListQuery::prioritizedCursor);
             } else {
                 sendMethodNotAllowed(h, h.getRequestMethod());
             }
+        } catch (BadRequestException e) {
+            sendBadRequest(h, e.getMessage());
         } catch (Exception e) {
             sendError(h, e.getMessage());
         }
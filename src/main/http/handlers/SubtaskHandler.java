@@ -3,24 +3,24 @@ package main.http.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import main.exceptions.BadRequestException;
+import main.http.BaseHttpHandler;
+import main.http.HistorySessions;
+import main.http.ListQuery;
+import main.http.ResponseCache;
 import main.manager.TaskManager;
 import main.models.Subtask;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
-public class SubtaskHandler implements HttpHandler {
+public class SubtaskHandler extends BaseHttpHandler implements HttpHandler {
 
-    private final TaskManager manager;
-    private final Gson gson;
-
-    public SubtaskHandler(TaskManager manager, Gson gson) {
-        this.manager = manager;
-        this.gson = gson;
+    public SubtaskHandler(TaskManager manager, Gson gson, HistorySessions sessions, ResponseCache cache) {
+        super(manager, gson, sessions, cache);
     }
 
     @Override
@@ -42,8 +42,13 @@ public class SubtaskHandler implements HttpHandler {
 
         if (parts.length == 2) {
             // Получаем все сабтаски
-            List<Subtask> subtasks = manager.getAllSubtasks();
-            sendResponse(exchange, 200, gson.toJson(subtasks));
+            try {
+                ListQuery query = ListQuery.parse(exchange.getRequestURI());
+                sendCachedList(exchange, query, () -> query.isPaged() ? manager.getSubtasks(query.afterId(), query.limit())
+                        : manager.getAllSubtasks(), ListQuery::idCursor);
+            } catch (BadRequestException e) {
+                sendBadRequest(exchange, e.getMessage());
+            }
         } else if (parts.length == 3) {
             // Получаем сабтаску по ID
             int id;
@@ -53,11 +58,13 @@ public class SubtaskHandler implements HttpHandler {
                 exchange.sendResponseHeaders(400, -1); // неверный ID
                 return;
             }
+            long stamp = cacheStamp(id);
             Subtask subtask = manager.getSubtask(id);
             if (subtask == null) {
                 exchange.sendResponseHeaders(404, -1); // сабтаска не найдена
             } else {
-                sendResponse(exchange, 200, gson.toJson(subtask));
+                recordView(exchange, subtask);
+                sendCachedJson(exchange, subtask, stamp);
             }
         } else {
             exchange.sendResponseHeaders(400, -1); // некорректный путь
@@ -68,9 +75,9 @@ public class SubtaskHandler implements HttpHandler {
         try {
             Subtask subtask = readRequestBody(exchange);
             Subtask created = manager.createSubtask(subtask);
-            sendResponse(exchange, 201, gson.toJson(created));
+            sendJson(exchange, created, 201);
         } catch (Exception e) {
-            sendResponse(exchange, 500, gson.toJson("Internal server error: " + e.getMessage()));
+            sendJson(exchange, "Internal server error: " + e.getMessage(), 500);
         }
     }
 
@@ -79,12 +86,12 @@ public class SubtaskHandler implements HttpHandler {
             Subtask subtask = readRequestBody(exchange);
             if (manager.getSubtask(subtask.getId()) != null) {
                 manager.updateSubtask(subtask);
-                sendResponse(exchange, 200, gson.toJson(subtask));
+                sendJson(exchange, subtask, 200);
             } else {
                 exchange.sendResponseHeaders(404, -1); // сабтаска не найдена
             }
         } catch (Exception e) {
-            sendResponse(exchange, 500, gson.toJson("Internal server error: " + e.getMessage()));
+            sendJson(exchange, "Internal server error: " + e.getMessage(), 500);
         }
     }
 
@@ -94,7 +101,9 @@ public class SubtaskHandler implements HttpHandler {
 
         if (parts.length == 2) {
             // Удаляем все сабтаски
+            List<Subtask> removed = manager.getAllSubtasks();
             manager.deleteAllSubtasks();
+            forgetViews(removed);
             exchange.sendResponseHeaders(204, -1);
         } else if (parts.length == 3) {
             // Удаляем сабтаску по ID
@@ -106,6 +115,7 @@ public class SubtaskHandler implements HttpHandler {
                 return;
             }
             manager.deleteSubtask(id); // <- удаляем без проверки
+            forgetView(id);
             exchange.sendResponseHeaders(204, -1); // всегда 204
         } else {
             exchange.sendResponseHeaders(400, -1); // некорректный путь
@@ -123,13 +133,4 @@ public class SubtaskHandler implements HttpHandler {
         }
         return gson.fromJson(sb.toString(), Subtask.class);
     }
-
-    private void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
-        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
-        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
-        exchange.sendResponseHeaders(statusCode, bytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bytes);
-        }
-    }
 }
@@ -3,7 +3,11 @@ package main.http.handlers;
 import com.google.gson.Gson;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import main.exceptions.BadRequestException;
 import main.http.BaseHttpHandler;
+import main.http.HistorySessions;
+import main.http.ListQuery;
+import main.http.ResponseCache;
 import main.manager.TaskManager;
 import main.models.Task;
 
@@ -12,8 +16,8 @@ import java.nio.charset.StandardCharsets;
 
 public class TaskHandler extends BaseHttpHandler implements HttpHandler {
 
-    public TaskHandler(TaskManager manager, Gson gson) {
-        super(manager, gson);
+    public TaskHandler(TaskManager manager, Gson gson, HistorySessions sessions, ResponseCache cache) {
+        super(manager, gson, sessions, cache);
     }
 
     @Override
@@ -25,33 +29,39 @@ public class TaskHandler extends BaseHttpHandler implements HttpHandler {
 
             if ("GET".equals(method)) {
                 if (parts.length == 2) { // /tasks
-                    sendText(h, gson.toJson(manager.getAllTasks()), 200);
+                    ListQuery query = ListQuery.parse(h.getRequestURI());
+                    sendCachedList(h, query, () -> query.isPaged() ? manager.getTasks(query.afterId(), query.limit())
+                            : manager.getAllTasks(), ListQuery::idCursor);
                 } else if (parts.length == 3) {
                     int id = Integer.parseInt(parts[2]);
+                    long stamp = cacheStamp(id);
                     Task task = manager.getTask(id);
                     if (task == null) {
                         sendNotFound(h, "Задача с id=" + id + " не найдена");
                     } else {
-                        sendText(h, gson.toJson(task), 200);
+                        recordView(h, task);
+                        sendCachedJson(h, task, stamp);
                     }
                 }
             } else if ("POST".equals(method)) {
                 String body = new String(h.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
                 Task task = gson.fromJson(body, Task.class);
                 if (task.getId() == 0) {
-                    manager.createTask(task);
-                    sendText(h, gson.toJson(task), 201);
+                    sendJson(h, manager.createTask(task), 201);
                 } else {
                     manager.updateTask(task);
-                    sendText(h, gson.toJson(task), 200);
+                    sendJson(h, task, 200);
                 }
             } else if ("DELETE".equals(method) && parts.length == 3) {
                 int id = Integer.parseInt(parts[2]);
                 manager.deleteTask(id);
+                forgetView(id);
                 sendNoContent(h);
             } else {
                 sendMethodNotAllowed(h, method);
             }
+        } catch (BadRequestException e) {
+            sendBadRequest(h, e.getMessage());
         } catch (Exception e) {
             sendError(h, e.getMessage());
         }
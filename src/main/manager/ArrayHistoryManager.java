@@ -0,0 +1,262 @@
+package main.manager;
+
+import main.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Потокобезопасная история на заранее выделенных массивах.
+// Список просмотров — параллельные массивы prev/next/task со списком свободных ячеек,
+// индекс id -> ячейка — открытая адресация по int[]; повторный просмотр переносит ячейку в конец без аллокаций.
+// add не берёт блокировку: просмотр записывается в кольцевой буфер, который применяется к списку пачкой
+// под блокировкой — при заполнении буфера наполовину, перед чтением истории и перед удалением.
+public class ArrayHistoryManager implements HistoryManager {
+    private static final int NIL = -1;
+    private static final int BUFFER_SIZE = 128;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private final int capacity;
+    private final Task[] tasks;
+    private final int[] ids;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] index; // номер ячейки + 1, 0 — пусто
+    private final int indexMask;
+    private final int indexShift;
+    private int head = NIL;
+    private int tail = NIL;
+    private int freeHead;
+    private int size;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicReferenceArray<Task> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+    private final AtomicLong writeCount = new AtomicLong();
+    private volatile long readCount;
+
+    public ArrayHistoryManager() {
+        this(Managers.DEFAULT_HISTORY_SIZE);
+    }
+
+    public ArrayHistoryManager(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("Недопустимая ёмкость истории: " + capacity);
+        }
+        this.capacity = capacity;
+        this.tasks = new Task[capacity];
+        this.ids = new int[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            next[i] = i + 1 < capacity ? i + 1 : NIL;
+        }
+        int indexSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.index = new int[indexSize];
+        this.indexMask = indexSize - 1;
+        this.indexShift = Integer.numberOfLeadingZeros(indexMask);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) return;
+
+        while (true) {
+            long write = writeCount.get();
+            if (write - readCount >= BUFFER_SIZE) {
+                drainLocked(); // буфер полон — освобождаем его сами
+                continue;
+            }
+            if (writeCount.compareAndSet(write, write + 1)) {
+                buffer.set((int) (write & BUFFER_MASK), task);
+                if (write + 1 - readCount >= BUFFER_SIZE / 2 && lock.tryLock()) {
+                    try {
+                        drain();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        lock.lock();
+        try {
+            drain();
+            int slot = find(id);
+            if (slot != NIL) {
+                release(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        lock.lock();
+        try {
+            drain();
+            List<Task> result = new ArrayList<>(size);
+            for (int slot = head; slot != NIL; slot = next[slot]) {
+                result.add(tasks[slot]);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        InMemoryHistoryManager.checkPage(offset, limit);
+        lock.lock();
+        try {
+            drain();
+            List<Task> page = new ArrayList<>(Math.min(limit, size));
+            int slot = tail;
+            for (int i = 0; i < offset && slot != NIL; i++) {
+                slot = prev[slot];
+            }
+            for (; slot != NIL && page.size() < limit; slot = prev[slot]) {
+                page.add(tasks[slot]);
+            }
+            return page;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drainLocked() {
+        lock.lock();
+        try {
+            drain();
+        } finally {
+            lock.unlock();
+        }
+        Thread.onSpinWait();
+    }
+
+    // Под блокировкой: применяет записанные просмотры по порядку.
+    // Останавливается на ячейке, которую писатель занял, но ещё не заполнил
+    private void drain() {
+        long read = readCount;
+        long write = writeCount.get();
+        while (read < write) {
+            int position = (int) (read & BUFFER_MASK);
+            Task task = buffer.get(position);
+            if (task == null) {
+                break;
+            }
+            buffer.lazySet(position, null);
+            apply(task);
+            read++;
+        }
+        readCount = read;
+    }
+
+    private void apply(Task task) {
+        int id = task.getId();
+        int slot = find(id);
+        if (slot != NIL) {
+            tasks[slot] = task;
+            if (slot != tail) {
+                unlink(slot);
+                linkLast(slot);
+            }
+            return;
+        }
+
+        if (size == capacity) {
+            release(head); // вытесняется давно просмотренная задача
+        }
+        slot = freeHead;
+        freeHead = next[slot];
+        tasks[slot] = task;
+        ids[slot] = id;
+        linkLast(slot);
+        insertIndex(id, slot);
+        size++;
+    }
+
+    private void release(int slot) {
+        unlink(slot);
+        deleteIndex(slot);
+        tasks[slot] = null;
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    private void linkLast(int slot) {
+        prev[slot] = tail;
+        next[slot] = NIL;
+        if (tail == NIL) {
+            head = slot;
+        } else {
+            next[tail] = slot;
+        }
+        tail = slot;
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NIL) {
+            head = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NIL) {
+            tail = before;
+        } else {
+            prev[after] = before;
+        }
+    }
+
+    private int home(int id) {
+        return (id * 0x9E3779B9) >>> indexShift;
+    }
+
+    private int find(int id) {
+        for (int i = home(id); index[i] != 0; i = (i + 1) & indexMask) {
+            int slot = index[i] - 1;
+            if (ids[slot] == id) {
+                return slot;
+            }
+        }
+        return NIL;
+    }
+
+    private void insertIndex(int id, int slot) {
+        int i = home(id);
+        while (index[i] != 0) {
+            i = (i + 1) & indexMask;
+        }
+        index[i] = slot + 1;
+    }
+
+    // Удаление из индекса со сдвигом следующих записей цепочки, как в IntHashMap
+    private void deleteIndex(int slot) {
+        int gap = home(ids[slot]);
+        while (index[gap] != slot + 1) {
+            gap = (gap + 1) & indexMask;
+        }
+        for (int i = (gap + 1) & indexMask; index[i] != 0; i = (i + 1) & indexMask) {
+            int home = home(ids[index[i] - 1]);
+            if (((i - home) & indexMask) >= ((i - gap) & indexMask)) {
+                index[gap] = index[i];
+                gap = i;
+            }
+        }
+        index[gap] = 0;
+    }
+}
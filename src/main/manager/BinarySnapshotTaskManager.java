@@ -0,0 +1,327 @@
+package main.manager;
+
+import main.enums.Priority;
+import main.enums.Status;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.PrimitiveIterator;
+import java.util.Map;
+
+// Хранение в компактном двоичном формате. CSV остаётся форматом импорта/экспорта
+// (importCsv/exportCsv), а основной файл пишется и читается без форматирования и разбора строк.
+//
+// Формат:
+//   заголовок: "KNBN", версия (1 байт), количество записей (varint)
+//   запись:    тег типа (1 байт), id (varint), статус (1 байт, NO_STATUS — без статуса), флаги (1 байт),
+//              имя и описание (длина varint + UTF-8), [приоритет], [начало, длительность],
+//              для подзадачи — id эпика, для эпика — id его подзадач
+//   время хранится в минутах от эпохи, длительность — в минутах (флаг PRECISE — в секундах и наносекундах)
+public class BinarySnapshotTaskManager extends FileBackedTaskManager {
+    private static final byte[] MAGIC = {'K', 'N', 'B', 'N'};
+    private static final int VERSION = 1;
+
+    private static final int TAG_TASK = 1;
+    private static final int TAG_EPIC = 2;
+    private static final int TAG_SUBTASK = 3;
+
+    private static final int FLAG_PRIORITY = 1;
+    private static final int FLAG_TIME = 1 << 1;
+    private static final int FLAG_PRECISE = 1 << 2; // время или длительность не кратны минуте
+
+    private static final int NO_STATUS = 0xFF;
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    // Связи эпик → подзадачи, прочитанные из снимка
+    private final Map<Integer, int[]> restoredLinks = new HashMap<>();
+
+    public BinarySnapshotTaskManager(File file) {
+        this(file, false);
+    }
+
+    BinarySnapshotTaskManager(File file, boolean restoring) {
+        super(file, restoring);
+    }
+
+    public static BinarySnapshotTaskManager loadFromFile(File file) {
+        BinarySnapshotTaskManager manager = new BinarySnapshotTaskManager(file, true);
+        manager.load();
+        return manager;
+    }
+
+    // Импорт доски из CSV; состояние сразу сохраняется в двоичный файл
+    public static BinarySnapshotTaskManager importCsv(File csv, File file) {
+        BinarySnapshotTaskManager manager = new BinarySnapshotTaskManager(file);
+        manager.readSnapshot(csv);
+        manager.relinkEpics();
+        manager.save();
+        return manager;
+    }
+
+    public void exportCsv(File csv) {
+        writeSnapshot(csv);
+    }
+
+    @Override
+    protected void save() {
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+            writeBinary(out);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения в файл", e);
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения в файл", e);
+        }
+    }
+
+    // Как и CSV: пустой файл — пустая доска, отсутствующий файл — ошибка загрузки
+    @Override
+    protected void readSnapshot() {
+        if (file.exists() && file.length() == 0) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            readBinary(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при загрузке из файла: " + file.getName(), e);
+        }
+    }
+
+    @Override
+    protected void relinkEpics() {
+        if (restoredLinks.isEmpty()) {
+            super.relinkEpics();
+            return;
+        }
+
+        // Подзадачи привязываются в сохранённом порядке
+        for (Map.Entry<Integer, int[]> entry : restoredLinks.entrySet()) {
+            Epic epic = epics.get(entry.getKey());
+            if (epic == null) continue;
+            for (int subtaskId : entry.getValue()) {
+                Subtask subtask = subtasks.get(subtaskId);
+                if (subtask != null && subtask.getEpicId() == epic.getId()) {
+                    epic.addSubtask(subtask);
+                }
+            }
+        }
+        restoredLinks.clear();
+
+        for (Epic epic : epics.values()) {
+            updateEpicStatus(epic.getId());
+            updateEpicTime(epic.getId());
+        }
+    }
+
+    private void writeBinary(DataOutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        writeVarLong(out, tasks.size() + epics.size() + subtasks.size());
+
+        for (Task task : tasks.values()) {
+            writeRecord(out, TAG_TASK, task);
+        }
+        for (Subtask subtask : subtasks.values()) {
+            writeRecord(out, TAG_SUBTASK, subtask);
+            writeVarLong(out, subtask.getEpicId());
+        }
+        for (Epic epic : epics.values()) {
+            writeRecord(out, TAG_EPIC, epic);
+            writeVarLong(out, epic.getSubtaskCount());
+            PrimitiveIterator.OfInt subtaskIds = epic.subtaskIdStream().iterator();
+            while (subtaskIds.hasNext()) {
+                writeVarLong(out, subtaskIds.nextInt());
+            }
+        }
+    }
+
+    private void writeRecord(DataOutputStream out, int tag, Task task) throws IOException {
+        // Время эпика вычисляется из подзадач и не сохраняется
+        boolean timed = tag != TAG_EPIC && task.getStartTime() != null;
+        boolean precise = timed && !isWholeMinutes(task.getStartTime(), task.getDuration());
+
+        int flags = 0;
+        if (task.getPriority() != null) flags |= FLAG_PRIORITY;
+        if (timed) flags |= FLAG_TIME;
+        if (precise) flags |= FLAG_PRECISE;
+
+        out.writeByte(tag);
+        writeVarLong(out, task.getId());
+        out.writeByte(task.getStatus() == null ? NO_STATUS : task.getStatus().ordinal());
+        out.writeByte(flags);
+        writeString(out, task.getName());
+        writeString(out, task.getDescription());
+        if (task.getPriority() != null) {
+            out.writeByte(task.getPriority().ordinal());
+        }
+        if (timed) {
+            LocalDateTime start = task.getStartTime();
+            Duration duration = task.getDuration();
+            if (precise) {
+                writeVarLong(out, zigZag(start.toEpochSecond(ZoneOffset.UTC)));
+                writeVarLong(out, start.getNano());
+                writeVarLong(out, zigZag(duration.getSeconds()));
+                writeVarLong(out, duration.getNano());
+            } else {
+                writeVarLong(out, zigZag(start.toEpochSecond(ZoneOffset.UTC) / 60));
+                writeVarLong(out, zigZag(duration.toMinutes()));
+            }
+        }
+    }
+
+    private void readBinary(DataInputStream in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (magic[i] != MAGIC[i]) {
+                throw new IOException("Файл не является двоичным снимком");
+            }
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия снимка: " + version);
+        }
+
+        long count = readVarLong(in);
+        for (long i = 0; i < count; i++) {
+            restoreTask(readRecord(in));
+        }
+    }
+
+    private Task readRecord(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        int id = (int) readVarLong(in);
+        Status status = readStatus(in);
+        int flags = in.readUnsignedByte();
+        String name = readString(in);
+        String description = readString(in);
+        Priority priority = (flags & FLAG_PRIORITY) != 0 ? PRIORITIES[in.readUnsignedByte()] : null;
+
+        LocalDateTime startTime = null;
+        Duration duration = Duration.ZERO;
+        if ((flags & FLAG_TIME) != 0) {
+            if ((flags & FLAG_PRECISE) != 0) {
+                startTime = LocalDateTime.ofEpochSecond(unZigZag(readVarLong(in)),
+                        (int) readVarLong(in), ZoneOffset.UTC);
+                duration = Duration.ofSeconds(unZigZag(readVarLong(in)), readVarLong(in));
+            } else {
+                startTime = LocalDateTime.ofEpochSecond(unZigZag(readVarLong(in)) * 60, 0, ZoneOffset.UTC);
+                duration = Duration.ofMinutes(unZigZag(readVarLong(in)));
+            }
+        }
+
+        Task task;
+        switch (tag) {
+            case TAG_TASK:
+                task = new Task(name, description, id, status, startTime, duration);
+                break;
+            case TAG_SUBTASK:
+                int epicId = (int) readVarLong(in);
+                task = new Subtask(name, description, id, status, epicId, startTime, duration);
+                break;
+            case TAG_EPIC:
+                task = new Epic(name, description, id, status);
+                int[] links = new int[(int) readVarLong(in)];
+                for (int i = 0; i < links.length; i++) {
+                    links[i] = (int) readVarLong(in);
+                }
+                restoredLinks.put(id, links);
+                break;
+            default:
+                throw new IOException("Неизвестный тип записи: " + tag);
+        }
+        task.setPriority(priority);
+        return task;
+    }
+
+    private static Status readStatus(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal == NO_STATUS) {
+            return null;
+        }
+        if (ordinal >= STATUSES.length) {
+            throw new IOException("Неизвестный статус: " + ordinal);
+        }
+        return STATUSES[ordinal];
+    }
+
+    private static boolean isWholeMinutes(LocalDateTime start, Duration duration) {
+        return start.getSecond() == 0 && start.getNano() == 0
+                && duration.getNano() == 0 && duration.getSeconds() % 60 == 0;
+    }
+
+    // Строка: длина + 1 (0 означает null) и байты UTF-8
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new EOFException("Повреждённое число в снимке");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,238 @@
+package main.manager;
+
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Потокобезопасный менеджер: чтения выполняются параллельно под read-lock,
+// изменения (включая проверку пересечений и пересчёт эпика) — атомарно под write-lock.
+// История защищена отдельно, потому что её меняют и читающие методы getTask/getEpic/getSubtask под read-lock:
+// поэтому принимается только потокобезопасный ArrayHistoryManager, где запись просмотра не берёт блокировку.
+// Задачи возвращаются копиями, поэтому их можно читать и сериализовать без блокировки.
+// Счётчик частоты обращений синхронизирован сам и держит блокировку только на обновление нескольких счётчиков.
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+    private volatile PrioritizedCopy prioritizedCopy;
+
+    private record PrioritizedCopy(List<Task> source, List<Task> copies) {
+    }
+
+    public ConcurrentTaskManager() {
+        this(new ArrayHistoryManager());
+    }
+
+    public ConcurrentTaskManager(ArrayHistoryManager historyManager) {
+        super(historyManager);
+    }
+
+    private <T> T read(Supplier<T> action) {
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Наружу отдаются копии, снятые под блокировкой: эпик меняется на месте при изменении подзадач,
+    // и сериализация живого объекта после снятия блокировки шла бы одновременно с писателем
+    @SuppressWarnings("unchecked")
+    private static <T extends Task> T copy(T task) {
+        return task == null ? null : (T) task.copy();
+    }
+
+    private static <T extends Task> ArrayList<T> copyAll(List<T> items) {
+        ArrayList<T> copies = new ArrayList<>(items.size());
+        for (T item : items) {
+            copies.add(copy(item));
+        }
+        return copies;
+    }
+
+    // Методы создания задач
+    @Override
+    public Task createTask(Task task) {
+        return copy(write(() -> super.createTask(task)));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        return copy(write(() -> super.createSubtask(subtask)));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        return copy(write(() -> super.createEpic(epic)));
+    }
+
+    // Методы удаления задач
+    @Override
+    public void deleteTask(int id) {
+        write(() -> super.deleteTask(id));
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        write(() -> super.deleteSubtask(id));
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        write(() -> super.deleteEpic(id));
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        write(super::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        write(super::deleteAllEpics);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        write(super::deleteAllSubtasks);
+    }
+
+    // Методы обновления задач
+    @Override
+    public void updateTask(Task task) {
+        write(() -> super.updateTask(task));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        write(() -> super.updateSubtask(subtask));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        write(() -> super.updateEpic(epic));
+    }
+
+    // Методы чтения
+    @Override
+    public Task getTask(int id) {
+        return read(() -> copy(super.getTask(id)));
+    }
+
+    @Override
+    public Epic getEpic(int id) {
+        return read(() -> copy(super.getEpic(id)));
+    }
+
+    @Override
+    public Subtask getSubtask(int id) {
+        return read(() -> copy(super.getSubtask(id)));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(() -> {
+            // Копия готового списка переиспользуется, пока менеджер отдаёт тот же список
+            List<Task> view = super.getPrioritizedTasks();
+            PrioritizedCopy cached = prioritizedCopy;
+            if (cached == null || cached.source() != view) {
+                cached = new PrioritizedCopy(view, Collections.unmodifiableList(copyAll(view)));
+                prioritizedCopy = cached;
+            }
+            return cached.copies();
+        });
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime afterStartTime, int afterId, int limit) {
+        return read(() -> copyAll(super.getPrioritizedTasks(afterStartTime, afterId, limit)));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        return read(() -> copyAll(super.getPrioritizedTasksBetween(from, to)));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to,
+                                                 LocalDateTime afterStartTime, int afterId, int limit) {
+        return read(() -> copyAll(super.getPrioritizedTasksBetween(from, to, afterStartTime, afterId, limit)));
+    }
+
+    @Override
+    public List<Task> getTasks(int afterId, int limit) {
+        return read(() -> copyAll(super.getTasks(afterId, limit)));
+    }
+
+    @Override
+    public List<Epic> getEpics(int afterId, int limit) {
+        return read(() -> copyAll(super.getEpics(afterId, limit)));
+    }
+
+    @Override
+    public List<Subtask> getSubtasks(int afterId, int limit) {
+        return read(() -> copyAll(super.getSubtasks(afterId, limit)));
+    }
+
+    @Override
+    public ArrayList<Task> getAllTasks() {
+        return read(() -> copyAll(super.getAllTasks()));
+    }
+
+    @Override
+    public ArrayList<Epic> getAllEpics() {
+        return read(() -> copyAll(super.getAllEpics()));
+    }
+
+    @Override
+    public ArrayList<Subtask> getAllSubtasks() {
+        return read(() -> copyAll(super.getAllSubtasks()));
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        return read(() -> copyAll(super.getEpicSubtasks(epicId)));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(() -> copyAll(super.getHistory()));
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return read(() -> copyAll(super.getHistory(offset, limit)));
+    }
+
+    @Override
+    public List<Task> getHotTasks(int k) {
+        return read(() -> copyAll(super.getHotTasks(k)));
+    }
+}
@@ -0,0 +1,369 @@
+package main.manager;
+
+import main.enums.Priority;
+import main.enums.Status;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Потоковый разбор CSV в формате задач без split и промежуточных строк:
+// байты записи копируются в переиспользуемый буфер, числа, даты и перечисления
+// разбираются прямо из него, строки создаются только для имени и описания.
+// Поддерживаются поля в кавычках (RFC 4180): запятые, переводы строк и "" внутри кавычек.
+// Как и прежний разбор, чтение останавливается на первой пустой строке.
+public class CsvTaskReader {
+    private static final int EOF = -1;
+    private static final byte[] TASK = bytes("TASK");
+    private static final byte[] EPIC = bytes("EPIC");
+    private static final byte[] SUBTASK = bytes("SUBTASK");
+    private static final Status[] STATUSES = Status.values();
+    private static final byte[][] STATUS_NAMES = names(STATUSES);
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final byte[][] PRIORITY_NAMES = names(PRIORITIES);
+
+    private final InputStream in;
+    private final ByteBuffer source;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    // Текущая запись: байты полей подряд и границы каждого поля
+    private byte[] record = new byte[256];
+    private int recordLength;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+    private boolean finished;
+    private boolean blankLine;
+    private boolean terminated;
+
+    public CsvTaskReader(InputStream in) {
+        this.in = in;
+        this.source = null;
+        this.buffer = new byte[1 << 16];
+    }
+
+    // Чтение из готового буфера, например отображённого в память куска файла
+    public CsvTaskReader(ByteBuffer source) {
+        this.in = null;
+        this.source = source;
+        this.buffer = new byte[1 << 16];
+    }
+
+    public void skipHeader() {
+        nextRecord();
+    }
+
+    // Следующая задача или null, если файл закончился; строки неизвестного типа пропускаются
+    public Task next() {
+        while (nextRecord()) {
+            Task task = toTask(0);
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    // Читает следующую запись; false — конец данных или пустая строка
+    public boolean nextRecord() {
+        if (finished) {
+            return false;
+        }
+        recordLength = 0;
+        fieldCount = 0;
+
+        int c = peek();
+        if (c == EOF) {
+            finished = true;
+            return false;
+        }
+
+        boolean quotedRecord = false;
+        while (true) {
+            int start = recordLength;
+            c = read();
+            if (c == '"') {
+                quotedRecord = true;
+                while ((c = read()) != EOF) {
+                    if (c == '"') {
+                        if (peek() != '"') break;
+                        read();
+                    }
+                    append(c);
+                }
+                // Всё после закрывающей кавычки до разделителя остаётся частью поля
+                while (c != EOF && (c = read()) != EOF && c != ',' && c != '\n') {
+                    append(c);
+                }
+            } else {
+                while (c != EOF && c != ',' && c != '\n') {
+                    append(c);
+                    c = read();
+                }
+            }
+
+            int end = recordLength;
+            if (c != ',' && end > start && record[end - 1] == '\r') {
+                end--;
+            }
+            addField(start, end);
+            if (c != ',') {
+                terminated = c == '\n';
+                break;
+            }
+        }
+
+        if (fieldCount == 1 && !quotedRecord && isBlank(fieldStarts[0], fieldEnds[0])) {
+            finished = true;
+            blankLine = true;
+            return false;
+        }
+        return true;
+    }
+
+    // Запись закончилась переводом строки, а не обрывом данных
+    public boolean recordTerminated() {
+        return terminated;
+    }
+
+    // Чтение остановилось на пустой строке, а не на конце данных
+    public boolean stoppedAtBlankLine() {
+        return blankLine;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public String field(int index) {
+        Objects.checkIndex(index, fieldCount);
+        return new String(record, fieldStarts[index], fieldEnds[index] - fieldStarts[index], StandardCharsets.UTF_8);
+    }
+
+    public int intField(int index) {
+        Objects.checkIndex(index, fieldCount);
+        return parseInt(fieldStarts[index], fieldEnds[index]);
+    }
+
+    // Задача из полей записи, начиная с first; null для записи неизвестного типа или с нехваткой полей
+    public Task toTask(int first) {
+        if (fieldCount - first < 8) return null;
+
+        int id = intField(first);
+        String name = field(first + 2);
+        Status status = enumField(first + 3, STATUS_NAMES, STATUSES);
+        String description = field(first + 4);
+        LocalDateTime startTime = isEmpty(first + 5) ? null : parseDateTime(first + 5);
+        Duration duration = isEmpty(first + 6) ? Duration.ZERO : parseDuration(first + 6);
+        Priority priority = isEmpty(first + 7) ? null : enumField(first + 7, PRIORITY_NAMES, PRIORITIES);
+
+        Task task;
+        if (matches(first + 1, TASK)) {
+            task = new Task(name, description, id, status, startTime, duration);
+        } else if (matches(first + 1, EPIC)) {
+            task = new Epic(name, description, id, status);
+        } else if (matches(first + 1, SUBTASK)) {
+            int epicId = (fieldCount > first + 8 && !isEmpty(first + 8)) ? intField(first + 8) : 0;
+            task = new Subtask(name, description, id, status, epicId, startTime, duration);
+        } else {
+            return null;
+        }
+        task.setPriority(priority);
+        return task;
+    }
+
+    private boolean isEmpty(int index) {
+        return fieldStarts[index] == fieldEnds[index];
+    }
+
+    private boolean matches(int index, byte[] value) {
+        int start = fieldStarts[index];
+        if (fieldEnds[index] - start != value.length) return false;
+        for (int i = 0; i < value.length; i++) {
+            if (record[start + i] != value[i]) return false;
+        }
+        return true;
+    }
+
+    private <E extends Enum<E>> E enumField(int index, byte[][] names, E[] values) {
+        for (int i = 0; i < names.length; i++) {
+            if (matches(index, names[i])) {
+                return values[i];
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное значение: " + field(index));
+    }
+
+    private int parseInt(int from, int to) {
+        if (from == to) {
+            throw new NumberFormatException("Пустое число");
+        }
+        boolean negative = record[from] == '-';
+        if (negative) from++;
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Некорректное число: " + new String(record, from, to - from,
+                        StandardCharsets.UTF_8));
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value != (int) value) {
+            throw new NumberFormatException("Число вне диапазона int");
+        }
+        return (int) value;
+    }
+
+    // Формат LocalDateTime.toString(): yyyy-MM-ddTHH:mm[:ss[.n…]]; редкие формы — через LocalDateTime.parse
+    private LocalDateTime parseDateTime(int index) {
+        int from = fieldStarts[index];
+        int length = fieldEnds[index] - from;
+        if (length < 16 || record[from + 4] != '-' || record[from + 7] != '-' || record[from + 10] != 'T'
+                || record[from + 13] != ':') {
+            return LocalDateTime.parse(field(index));
+        }
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (record[from + 16] != ':' || length < 19) {
+                return LocalDateTime.parse(field(index));
+            }
+            second = parseInt(from + 17, from + 19);
+            if (length > 19) {
+                if (record[from + 19] != '.' || length > 29) {
+                    return LocalDateTime.parse(field(index));
+                }
+                nano = parseInt(from + 20, from + length);
+                for (int digits = length - 20; digits < 9; digits++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return LocalDateTime.of(parseInt(from, from + 4), parseInt(from + 5, from + 7),
+                parseInt(from + 8, from + 10), parseInt(from + 11, from + 13), parseInt(from + 14, from + 16),
+                second, nano);
+    }
+
+    // Формат Duration.toString() вида PT[nH][nM][nS]; дробные секунды и дни — через Duration.parse
+    private Duration parseDuration(int index) {
+        int from = fieldStarts[index];
+        int to = fieldEnds[index];
+        if (to - from < 3 || record[from] != 'P' || record[from + 1] != 'T') {
+            return Duration.parse(field(index));
+        }
+        long seconds = 0;
+        int numberStart = from + 2;
+        for (int i = numberStart; i < to; i++) {
+            byte unit = record[i];
+            if (unit >= '0' && unit <= '9' || unit == '-') continue;
+            if (i == numberStart) {
+                return Duration.parse(field(index));
+            }
+            long value = parseInt(numberStart, i);
+            switch (unit) {
+                case 'H':
+                    seconds += value * 3600;
+                    break;
+                case 'M':
+                    seconds += value * 60;
+                    break;
+                case 'S':
+                    seconds += value;
+                    break;
+                default:
+                    return Duration.parse(field(index));
+            }
+            numberStart = i + 1;
+        }
+        if (numberStart != to) {
+            return Duration.parse(field(index));
+        }
+        return Duration.ofSeconds(seconds);
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(record[i])) return false;
+        }
+        return true;
+    }
+
+    private void append(int c) {
+        if (recordLength == record.length) {
+            byte[] grown = new byte[record.length * 2];
+            System.arraycopy(record, 0, grown, 0, recordLength);
+            record = grown;
+        }
+        record[recordLength++] = (byte) c;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            int[] starts = new int[fieldCount * 2];
+            int[] ends = new int[fieldCount * 2];
+            System.arraycopy(fieldStarts, 0, starts, 0, fieldCount);
+            System.arraycopy(fieldEnds, 0, ends, 0, fieldCount);
+            fieldStarts = starts;
+            fieldEnds = ends;
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private int read() {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int peek() {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private boolean fill() {
+        position = 0;
+        limit = 0;
+        if (source != null) {
+            int count = Math.min(buffer.length, source.remaining());
+            source.get(buffer, 0, count);
+            limit = count;
+        } else {
+            try {
+                int count = in.read(buffer);
+                limit = Math.max(count, 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return limit > 0;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = bytes(values[i].name());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,153 @@
+package main.manager;
+
+import main.models.Subtask;
+import main.models.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Запись задач в CSV без String.format: строка собирается в переиспользуемом StringBuilder.
+// Имя и описание с запятыми, кавычками или переводами строк берутся в кавычки (RFC 4180),
+// поэтому такие задачи больше не ломают файл.
+public class CsvTaskWriter {
+    public static final String HEADER = "id,type,name,status,description,startTime,duration,priority,epicId";
+
+    private final Writer out;
+    private final StringBuilder row = new StringBuilder(128);
+
+    public CsvTaskWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    public void write(Task task) throws IOException {
+        row.setLength(0);
+        appendTask(row, task);
+        row.append('\n');
+        out.append(row);
+    }
+
+    public static String toCsv(Task task) {
+        StringBuilder builder = new StringBuilder(128);
+        appendTask(builder, task);
+        return builder.toString();
+    }
+
+    public static void appendTask(StringBuilder builder, Task task) {
+        builder.append(task.getId()).append(',')
+                .append(task.getTaskType()).append(',');
+        appendText(builder, task.getName());
+        builder.append(',').append(task.getStatus()).append(',');
+        appendText(builder, task.getDescription());
+        builder.append(',');
+
+        if (task.getStartTime() != null) {
+            appendDateTime(builder, task.getStartTime());
+            builder.append(',');
+            appendDuration(builder, task.getDuration());
+        } else {
+            builder.append(',');
+        }
+
+        builder.append(',');
+        if (task.getPriority() != null) {
+            builder.append(task.getPriority());
+        }
+
+        builder.append(',');
+        if (task instanceof Subtask) {
+            builder.append(((Subtask) task).getEpicId());
+        }
+    }
+
+    // Вместо null пишется "null" — так же, как писал прежний формат
+    static void appendText(StringBuilder builder, String value) {
+        String text = String.valueOf(value);
+        if (!needsQuotes(text)) {
+            builder.append(text);
+            return;
+        }
+        builder.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                builder.append('"');
+            }
+            builder.append(c);
+        }
+        builder.append('"');
+    }
+
+    private static boolean needsQuotes(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        if (text.charAt(0) == '"' || Character.isWhitespace(text.charAt(0))) {
+            return true; // иначе строка из пробелов была бы прочитана как пустая
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Тот же вид, что у LocalDateTime.toString()
+    private static void appendDateTime(StringBuilder builder, LocalDateTime time) {
+        int year = time.getYear();
+        if (year < 1000 || year > 9999) {
+            builder.append(time);
+            return;
+        }
+        builder.append(year).append('-');
+        appendTwoDigits(builder, time.getMonthValue());
+        builder.append('-');
+        appendTwoDigits(builder, time.getDayOfMonth());
+        builder.append('T');
+        appendTwoDigits(builder, time.getHour());
+        builder.append(':');
+        appendTwoDigits(builder, time.getMinute());
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            builder.append(':');
+            appendTwoDigits(builder, time.getSecond());
+            if (time.getNano() != 0) {
+                builder.append(time.toLocalTime().toString(), 8, time.toLocalTime().toString().length());
+            }
+        }
+    }
+
+    // Тот же вид, что у Duration.toString(); для дробных секунд используется он сам
+    private static void appendDuration(StringBuilder builder, Duration duration) {
+        if (duration.getNano() != 0 || duration.isNegative()) {
+            builder.append(duration);
+            return;
+        }
+        long seconds = duration.getSeconds();
+        if (seconds == 0) {
+            builder.append("PT0S");
+            return;
+        }
+        builder.append("PT");
+        long hours = seconds / 3600;
+        int minutes = (int) (seconds % 3600 / 60);
+        int secs = (int) (seconds % 60);
+        if (hours != 0) builder.append(hours).append('H');
+        if (minutes != 0) builder.append(minutes).append('M');
+        if (secs != 0) builder.append(secs).append('S');
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        if (value < 10) {
+            builder.append('0');
+        }
+        builder.append(value);
+    }
+}
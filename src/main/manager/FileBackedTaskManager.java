@@ -1,41 +1,74 @@
 package main.manager;
 
-import main.enums.Priority;
-import main.enums.Status;
 import main.enums.TaskType;
 import main.models.*;
 import java.io.*;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
-    private final File file;
-    private static final String HEADER = "id,type,name,status,description,startTime,duration,priority,epicId";
+    // С этого размера CSV-снимок разбирается параллельно: на холодном старте сервера разбор — основная стоимость
+    public static final long PARALLEL_LOAD_BYTES = 1L << 20;
+
+    protected final File file;
+    // История переживает перезапуск: просмотры дописываются в журнал id рядом с файлом
+    protected final PersistentHistoryManager historyLog;
 
     public FileBackedTaskManager(File file) {
+        this(file, false);
+    }
+
+    // restoring — менеджер создаётся загрузкой с диска, и журнал истории будет воспроизведён;
+    // иначе это новая доска, и прежний журнал по тому же пути удаляется
+    FileBackedTaskManager(File file, boolean restoring) {
+        this(file, new PersistentHistoryManager(historyFile(file), Managers.getDefaultHistory()));
+        if (!restoring) {
+            historyLog.reset();
+        }
+    }
+
+    private FileBackedTaskManager(File file, PersistentHistoryManager historyLog) {
+        super(historyLog);
         this.file = file;
+        this.historyLog = historyLog;
+    }
+
+    public static File historyFile(File file) {
+        return new File(file.getPath() + ".history");
+    }
+
+    // Записывает в журнал просмотры, накопленные с последней пачки
+    public void flushHistory() {
+        historyLog.flush();
+    }
+
+    protected void restoreHistory() {
+        historyLog.replay(this::findRestored);
     }
 
     @Override
     public Task createTask(Task task) {
         Task created = super.createTask(task);
-        save();
+        onSaved(created);
         return created;
     }
 
     @Override
     public Epic createEpic(Epic epic) {
         Epic created = super.createEpic(epic);
-        save();
+        onSaved(created);
         return created;
     }
 
     @Override
     public Subtask createSubtask(Subtask subtask) {
         Subtask created = super.createSubtask(subtask);
-        save();
+        onSaved(created);
         return created;
     }
 
@@ -46,157 +79,236 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     @Override
     public void updateTask(Task task) {
         super.updateTask(task);
-        save();
+        if (tasks.get(task.getId()) == task) {
+            onSaved(task);
+        }
     }
 
     @Override
     public void updateEpic(Epic epic) {
         super.updateEpic(epic);
-        save();
+        Epic savedEpic = epics.get(epic.getId());
+        if (savedEpic != null) {
+            onSaved(savedEpic);
+        }
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
-            super.updateSubtask(subtask);
-            save();
+        super.updateSubtask(subtask);
+        if (subtasks.get(subtask.getId()) == subtask) {
+            onSaved(subtask);
+        }
     }
 
     @Override
     public void deleteTask(int id) {
+        boolean existed = tasks.containsKey(id);
         super.deleteTask(id);
-        save();
+        if (existed) {
+            onDeleted(TaskType.TASK, id);
+        }
     }
 
     @Override
     public void deleteEpic(int id) {
+        boolean existed = epics.containsKey(id);
         super.deleteEpic(id);
-        save();
+        if (existed) {
+            onDeleted(TaskType.EPIC, id);
+        }
     }
 
     @Override
     public void deleteSubtask(int id) {
+        boolean existed = subtasks.containsKey(id);
         super.deleteSubtask(id);
+        if (existed) {
+            onDeleted(TaskType.SUBTASK, id);
+        }
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        super.deleteAllTasks();
+        onCleared(TaskType.TASK);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        super.deleteAllEpics();
+        onCleared(TaskType.EPIC);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        super.deleteAllSubtasks();
+        onCleared(TaskType.SUBTASK);
+    }
+
+    // Точки расширения для других способов хранения: по умолчанию файл переписывается целиком
+    protected void onSaved(Task task) {
         save();
     }
 
-    private void save() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(HEADER);
-            writer.newLine();
+    protected void onDeleted(TaskType type, int id) {
+        save();
+    }
 
-            for (Epic epic : getAllEpics()) {
-                writer.write(taskToCsv(epic));
-                writer.newLine();
-            }
-            for (Task task : getAllTasks()) {
-                writer.write(taskToCsv(task));
-                writer.newLine();
-            }
-            for (Subtask subtask : getAllSubtasks()) {
-                writer.write(taskToCsv(subtask));
-                writer.newLine();
-            }
+    protected void onCleared(TaskType type) {
+        save();
+    }
+
+    protected void save() {
+        writeSnapshot(file);
+    }
+
+    protected void writeSnapshot(File target) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(target, StandardCharsets.UTF_8))) {
+            writeCsv(writer);
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка сохранения в файл", e);
         }
     }
 
+    protected void writeCsv(BufferedWriter writer) throws IOException {
+        CsvTaskWriter csv = new CsvTaskWriter(writer);
+        csv.writeHeader();
+
+        for (Epic epic : epics.values()) {
+            csv.write(epic);
+        }
+        for (Task task : tasks.values()) {
+            csv.write(task);
+        }
+        for (Subtask subtask : subtasks.values()) {
+            csv.write(subtask);
+        }
+    }
+
     public void saveToFile() {
         save();
+        flushHistory();
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, true);
+        manager.loadCsv();
+        return manager;
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line = reader.readLine(); // пропустить заголовок
+    // Параллельный разбор и массовое построение индексов независимо от размера файла
+    public static FileBackedTaskManager loadFromFileParallel(File file) {
+        return loadFromFileParallel(file, ForkJoinPool.commonPool());
+    }
 
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) break;
+    public static FileBackedTaskManager loadFromFileParallel(File file, ForkJoinPool pool) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, true);
+        manager.loadParallel(pool);
+        return manager;
+    }
 
-                String[] fields = line.split(",", -1); // split with empty values
-                Task task = fromCsv(fields);
-                if (task != null) {
-                    manager.restoreTask(task);
-                }
-            }
+    // Загрузка CSV-снимка: большие файлы разбираются параллельно в общем пуле, маленькие — последовательно
+    protected void loadCsv() {
+        if (file.length() >= PARALLEL_LOAD_BYTES) {
+            loadParallel(ForkJoinPool.commonPool());
+        } else {
+            load();
+        }
+    }
 
-            // Восстановление связей между эпиками и подзадачами
-            for (Subtask sub : manager.subtasks.values()) {
-                Epic epic = manager.epics.get(sub.getEpicId());
-                if (epic != null) {
-                    epic.addSubtask(sub.getId());
-                }
-            }
+    protected void load() {
+        readSnapshot();
+        relinkEpics();
+        restoreHistory();
+    }
 
-            // Пересчёт статусов и времени у эпиков
-            for (Epic epic : manager.epics.values()) {
-                manager.updateEpicStatus(epic.getId());
-                epic.recalcTime(manager.getEpicSubtasks(epic.getId()));
+    protected void loadParallel(ForkJoinPool pool) {
+        List<Task> restored = new ParallelCsvReader(file, pool).read();
+
+        for (Task task : restored) {
+            switch (task.getTaskType()) {
+                case TaskType.TASK:
+                    tasks.put(task.getId(), task);
+                    break;
+                case TaskType.EPIC:
+                    epics.put(task.getId(), (Epic) task);
+                    break;
+                case TaskType.SUBTASK:
+                    subtasks.put(task.getId(), (Subtask) task);
+                    break;
+                default:
+                    throw new IllegalStateException("Неизвестный тип задачи: " + task.getTaskType());
             }
-
-        } catch (IOException e) {
-            throw new RuntimeException("Ошибка при загрузке из файла: " + file.getName(), e);
+            nextId = Math.max(nextId, task.getId() + 1);
         }
 
-        return manager;
+        // Агрегаты каждого эпика считаются независимо, поэтому эпики обрабатываются параллельно
+        Map<Integer, List<Subtask>> subtasksByEpic = pool.submit(() -> subtasks.values().parallelStream()
+                .collect(Collectors.groupingByConcurrent(Subtask::getEpicId))).join();
+        pool.submit(() -> epics.values().parallelStream().forEach(epic -> {
+            List<Subtask> epicSubtasks = subtasksByEpic.get(epic.getId());
+            if (epicSubtasks != null) {
+                epicSubtasks.sort(Comparator.comparingInt(Subtask::getId));
+                epicSubtasks.forEach(epic::addSubtask);
+            }
+            epic.recalcStatus();
+            epic.recalcTime();
+        })).join();
+
+        List<Task> all = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        all.addAll(tasks.values());
+        all.addAll(epics.values());
+        all.addAll(subtasks.values());
+        addAllPrioritized(all);
+        restoreHistory();
     }
 
-    private static Task fromCsv(String[] fields) {
-        if (fields.length < 8) return null;
-
-        int id = Integer.parseInt(fields[0]);
-        String type = fields[1];
-        String name = fields[2];
-        Status status = Status.valueOf(fields[3]);
-        String description = fields[4];
-        LocalDateTime startTime = fields[5].isEmpty() ? null : LocalDateTime.parse(fields[5]);
-        Duration duration = fields[6].isEmpty() ? Duration.ZERO : Duration.parse(fields[6]);
-        Priority priority = fields[7].isEmpty() ? null : Priority.valueOf(fields[7]);
-        int epicId = (fields.length > 8 && !fields[8].isEmpty()) ? Integer.parseInt(fields[8]) : 0;
-
-        switch (type) {
-            case "TASK":
-                Task task = new Task(name, description, id, status, startTime, duration);
-                task.setPriority(priority);
-                return task;
-            case "EPIC":
-                Epic epic = new Epic(name, description, id, status);
-                epic.setPriority(priority);
-                return epic;
-            case "SUBTASK":
-                Subtask subtask = new Subtask(name, description, id, status, epicId, startTime, duration);
-                subtask.setPriority(priority);
-                return subtask;
-            default:
-                return null;
-        }
+    protected void readSnapshot() {
+        readSnapshot(file);
     }
 
-    private String taskToCsv(Task task) {
-        String base = String.format("%d,%s,%s,%s,%s",
-                task.getId(),
-                task.getTaskType(),
-                task.getName(),
-                task.getStatus(),
-                task.getDescription());
+    protected void readSnapshot(File source) {
+        try (InputStream in = new FileInputStream(source)) {
+            CsvTaskReader reader = new CsvTaskReader(in);
+            reader.skipHeader();
 
-        String timePart = (task.getStartTime() != null)
-                ? String.format(",%s,%s", task.getStartTime(), task.getDuration().toString())
-                : ",,";
+            Task task;
+            while ((task = reader.next()) != null) {
+                restoreTask(task);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Ошибка при загрузке из файла: " + source.getName(), e);
+        }
+    }
 
-        String priorityPart = (task.getPriority() != null)
-                ? "," + task.getPriority()
-                : ",";
+    protected void relinkEpics() {
+        // Восстановление связей между эпиками и подзадачами (агрегаты эпика считаются попутно)
+        for (Subtask sub : subtasks.values()) {
+            Epic epic = epics.get(sub.getEpicId());
+            if (epic != null) {
+                epic.addSubtask(sub);
+            }
+        }
 
-        String epicIdPart = (task instanceof Subtask)
-                ? "," + ((Subtask) task).getEpicId()
-                : ",";  // обязательно добавляем запятую для выравнивания по полям
+        // Пересчёт статусов и переиндексация эпиков по времени
+        for (Epic epic : epics.values()) {
+            updateEpicStatus(epic.getId());
+            updateEpicTime(epic.getId());
+        }
+    }
 
-        return base + timePart + priorityPart + epicIdPart;
+    protected String taskToCsv(Task task) {
+        return CsvTaskWriter.toCsv(task);
     }
 
-    private void restoreTask(Task task) {
+    // Загрузка задачи напрямую в хранилище, без проверок пересечений
+    protected void restoreTask(Task task) {
+        Task previous = findRestored(task.getId());
+        if (previous != null) {
+            removePrioritized(previous);
+        }
+
         switch (task.getTaskType()) {
             case TaskType.TASK:
                 tasks.put(task.getId(), task);
@@ -211,25 +323,31 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
                 throw new IllegalStateException("Неизвестный тип задачи: " + task.getTaskType());
         }
 
-        if (task.getStartTime() != null) {
-            sortedTasks.add(task);
-        }
+        addPrioritized(task);
 
         nextId = Math.max(nextId, task.getId() + 1);
     }
 
-    private List<Subtask> getEpicSubtasks(int epicId) {
-        List<Subtask> result = new ArrayList<>();
-        Epic epic = epics.get(epicId);
-        if (epic == null) return result;
-
-        for (Integer subtaskId : epic.getSubtaskIds()) {
-            Subtask subtask = subtasks.get(subtaskId);
-            if (subtask != null) {
-                result.add(subtask);
+    // Подзадачи, чей эпик не восстановился: каскадное удаление могло записаться не до конца
+    protected List<Subtask> dropOrphanSubtasks() {
+        List<Subtask> orphans = new ArrayList<>();
+        for (Subtask subtask : subtasks.values()) {
+            if (!epics.containsKey(subtask.getEpicId())) {
+                orphans.add(subtask);
             }
         }
-        return result;
+        for (Subtask orphan : orphans) {
+            subtasks.remove(orphan.getId());
+            removePrioritized(orphan);
+        }
+        return orphans;
+    }
+
+    protected Task findRestored(int id) {
+        Task task = tasks.get(id);
+        if (task == null) task = epics.get(id);
+        if (task == null) task = subtasks.get(id);
+        return task;
     }
 
     public static class ManagerSaveException extends RuntimeException {
@@ -0,0 +1,192 @@
+package main.manager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Частота обращений к задачам: count-min sketch из DEPTH строк счётчиков плюс небольшой набор самых частых id.
+// Оценка частоты — минимум счётчиков id по строкам, она может быть завышена коллизиями, но не занижена.
+// Как в TinyLFU, после sampleSize обращений все счётчики делятся пополам, чтобы старая популярность угасала.
+// Память постоянная и не зависит от числа задач.
+// record не блокируется: счётчики атомарные, а набор самых частых и старение обновляются под tryLock —
+// если блокировка занята, обновление пропускается. Частый id всё равно попадёт в набор при следующих обращениях.
+public class FrequencySketch {
+    public static final int DEFAULT_WIDTH = 4_096;
+    public static final int DEFAULT_HOT_SIZE = 32;
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final AtomicIntegerArray table;
+    private final int shift;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Кандидаты в самые частые: id и последняя оценка частоты
+    private final int[] hotIds;
+    private final int[] hotCounts;
+    private int hotSize;
+
+    public FrequencySketch() {
+        this(DEFAULT_WIDTH, DEFAULT_HOT_SIZE);
+    }
+
+    public FrequencySketch(int width, int hotSize) {
+        if (width <= 0 || hotSize <= 0) {
+            throw new IllegalArgumentException("Размеры должны быть положительными");
+        }
+        int rowSize = Math.max(2, Integer.highestOneBit(width * 2 - 1));
+        this.table = new AtomicIntegerArray(DEPTH * rowSize);
+        this.shift = Integer.numberOfLeadingZeros(rowSize - 1);
+        this.sampleSize = 10 * rowSize;
+        this.hotIds = new int[hotSize];
+        this.hotCounts = new int[hotSize];
+    }
+
+    public void record(int id) {
+        int count = Integer.MAX_VALUE;
+        int mixed = mix(id);
+        for (int row = 0; row < DEPTH; row++) {
+            count = Math.min(count, increment(cell(row, mixed)));
+        }
+
+        boolean aging = additions.incrementAndGet() >= sampleSize;
+        if (lock.tryLock()) {
+            try {
+                offer(id, count);
+                if (aging && additions.get() >= sampleSize) { // другой поток мог уже состарить счётчики
+                    age();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int estimate(int id) {
+        int count = Integer.MAX_VALUE;
+        int mixed = mix(id);
+        for (int row = 0; row < DEPTH; row++) {
+            count = Math.min(count, table.get(cell(row, mixed)));
+        }
+        return count;
+    }
+
+    // Удалённая задача больше не попадает в самые частые; её счётчики угаснут при старении
+    public void remove(int id) {
+        lock.lock();
+        try {
+            int i = hotIndex(id);
+            if (i >= 0) {
+                hotSize--;
+                hotIds[i] = hotIds[hotSize];
+                hotCounts[i] = hotCounts[hotSize];
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            for (int i = 0; i < table.length(); i++) {
+                table.set(i, 0);
+            }
+            additions.set(0);
+            hotSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // До k самых частых id по убыванию частоты, при равенстве — по id
+    public int[] hottest(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Некорректное число задач: " + k);
+        }
+        lock.lock();
+        try {
+            long[] order = new long[hotSize];
+            for (int i = 0; i < hotSize; i++) {
+                // Частота в старших битах с инверсией, id в младших: обычная сортировка даёт нужный порядок
+                order[i] = ((long) (Integer.MAX_VALUE - hotCounts[i]) << 32) | (hotIds[i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(order);
+            int[] result = new int[Math.min(k, hotSize)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (int) order[i];
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Увеличение с насыщением; возвращает новое значение счётчика
+    private int increment(int cell) {
+        while (true) {
+            int current = table.get(cell);
+            if (current == Integer.MAX_VALUE) {
+                return current;
+            }
+            if (table.compareAndSet(cell, current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private void offer(int id, int count) {
+        int i = hotIndex(id);
+        if (i >= 0) {
+            hotCounts[i] = count;
+            return;
+        }
+        if (hotSize < hotIds.length) {
+            hotIds[hotSize] = id;
+            hotCounts[hotSize] = count;
+            hotSize++;
+            return;
+        }
+        int min = 0;
+        for (int j = 1; j < hotSize; j++) {
+            if (hotCounts[j] < hotCounts[min]) {
+                min = j;
+            }
+        }
+        if (count > hotCounts[min]) {
+            hotIds[min] = id;
+            hotCounts[min] = count;
+        }
+    }
+
+    private int hotIndex(int id) {
+        for (int i = 0; i < hotSize; i++) {
+            if (hotIds[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Вызывается под lock; одновременные record могут потерять своё увеличение — оценка и так приблизительная
+    private void age() {
+        additions.set(0);
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, table.get(i) >>> 1);
+        }
+        for (int i = 0; i < hotSize; i++) {
+            hotCounts[i] >>>= 1;
+        }
+    }
+
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int cell(int row, int mixed) {
+        return (row << (32 - shift)) + ((mixed * SEEDS[row]) >>> shift);
+    }
+}
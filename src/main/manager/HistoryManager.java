@@ -8,5 +8,9 @@ public interface HistoryManager {
 
     List<Task> getHistory();
 
+    // Страница истории от новых просмотров к старым: offset самых новых записей пропускается.
+    // Время — O(offset + limit), без копирования всей истории
+    List<Task> getHistory(int offset, int limit);
+
     void remove(int id);
 }
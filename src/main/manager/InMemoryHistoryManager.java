@@ -4,6 +4,9 @@ import main.models.Task;
 import java.util.*;
 
 public class InMemoryHistoryManager implements HistoryManager {
+    // Примерный размер одной записи истории: узел списка и ячейка индекса (сами задачи принадлежат менеджеру)
+    static final int ENTRY_BYTES = 48;
+
     private static class Node {
         Task task;
         Node prev;
@@ -16,10 +19,32 @@ public class InMemoryHistoryManager implements HistoryManager {
         }
     }
 
-    private final Map<Integer, Node> nodeMap = new HashMap<>();
+    private final IntHashMap<Node> nodeMap = new IntHashMap<>();
+    private final int capacity;
     private Node head;
     private Node tail;
 
+    public InMemoryHistoryManager() {
+        this(Integer.MAX_VALUE);
+    }
+
+    // При превышении ёмкости вытесняются давно просмотренные задачи (LRU)
+    public InMemoryHistoryManager(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть положительной: " + maxSize);
+        }
+        this.capacity = maxSize;
+    }
+
+    // Ограничение и по числу записей, и по примерному объёму памяти
+    public InMemoryHistoryManager(int maxSize, long maxBytes) {
+        this((int) Math.min(maxSize, Math.max(1, maxBytes / ENTRY_BYTES)));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
     private void linkLast(Task task) {
         final Node newNode = new Node(task, tail, null);
         if (tail == null) {
@@ -54,6 +79,9 @@ public class InMemoryHistoryManager implements HistoryManager {
             removeNode(existingNode);
         }
         linkLast(task);
+        if (nodeMap.size() > capacity) {
+            removeNode(head);
+        }
     }
 
     @Override
@@ -75,4 +103,25 @@ public class InMemoryHistoryManager implements HistoryManager {
         return tasks;
     }
 
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        checkPage(offset, limit);
+        List<Task> page = new ArrayList<>(Math.min(limit, nodeMap.size()));
+        Node current = tail;
+        for (int i = 0; i < offset && current != null; i++) {
+            current = current.prev;
+        }
+        while (current != null && page.size() < limit) {
+            page.add(current.task);
+            current = current.prev;
+        }
+        return page;
+    }
+
+    static void checkPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Некорректная страница истории: offset=" + offset + ", limit=" + limit);
+        }
+    }
+
 }
\ No newline at end of file
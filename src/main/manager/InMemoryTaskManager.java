@@ -1,39 +1,173 @@
 package main.manager;
 
+import main.enums.StorageMode;
 import main.models.*;
-import main.enums.Status;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
 
 public class InMemoryTaskManager implements TaskManager {
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, Subtask> subtasks = new HashMap<>();
+    // Ключи int без упаковки; перебор по id, чтобы страницы читались с курсора без копирования всей коллекции
+    protected final SortedIntHashMap<Task> tasks = new SortedIntHashMap<>();
+    protected final SortedIntHashMap<Epic> epics = new SortedIntHashMap<>();
+    protected final SortedIntHashMap<Subtask> subtasks = new SortedIntHashMap<>();
+    // Сравнение по числовому времени: сортировка не создаёт объектов и у компактных задач
     protected final NavigableSet<Task> sortedTasks = new TreeSet<>(
-            Comparator.comparing(Task::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
-                    .thenComparing(Task::getId)
+            ((Comparator<Task>) InMemoryTaskManager::compareStartTime).thenComparingInt(Task::getId)
     );
-    protected final HistoryManager historyManager = new InMemoryHistoryManager();
+    protected final IntervalIndex timeIndex = new IntervalIndex();
+    // Задачи, подзадачи и эпики без времени — в порядке id
+    protected final SortedIntHashMap<Task> untimedTasks = new SortedIntHashMap<>();
+    // Готовый неизменяемый список по приоритету; сбрасывается при любом изменении индексов
+    private volatile List<Task> prioritizedView;
+    // Версия растёт на каждое логическое изменение; слушатели получают id затронутых задач
+    private volatile long version;
+    private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
+    protected final HistoryManager historyManager;
+    // Частота обращений getTask/getEpic/getSubtask — для getHotTasks
+    protected final FrequencySketch accessFrequency = new FrequencySketch();
     protected int nextId = 1;
+    // Компактный режим: задачи и подзадачи хранятся как CompactTask/CompactSubtask,
+    // а в COMPACT_DEDUPLICATED одинаковые имена и описания — одной строкой
+    private final StorageMode storageMode;
+    private final StringPool strings;
+
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this(historyManager, StorageMode.STANDARD);
+    }
+
+    public InMemoryTaskManager(HistoryManager historyManager, StorageMode storageMode) {
+        this.historyManager = historyManager;
+        this.storageMode = storageMode;
+        this.strings = storageMode == StorageMode.COMPACT_DEDUPLICATED ? new StringPool() : null;
+    }
+
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    // Задача в том виде, в каком её хранит менеджер. В компактном режиме это новый объект
+    // (если время задано с точностью до минуты), эпик только получает общие строки
+    @SuppressWarnings("unchecked")
+    protected <T extends Task> T toStored(T task) {
+        if (storageMode == StorageMode.STANDARD) {
+            return task;
+        }
+        if (strings != null) {
+            task.setName(strings.canonical(task.getName()));
+            task.setDescription(strings.canonical(task.getDescription()));
+        }
+        if (task instanceof CompactTask || task instanceof CompactSubtask || !CompactTask.fits(task)) {
+            return task;
+        }
+        switch (task.getTaskType()) {
+            case TASK:
+                return (T) new CompactTask(task);
+            case SUBTASK:
+                return (T) new CompactSubtask((Subtask) task);
+            default:
+                return task; // время эпика выводится из подзадач
+        }
+    }
+
+    private static int compareStartTime(Task first, Task second) {
+        if (!first.hasStartTime() || !second.hasStartTime()) {
+            return Boolean.compare(!first.hasStartTime(), !second.hasStartTime()); // без времени — в конце
+        }
+        int cmp = Long.compare(first.getStartSecond(), second.getStartSecond());
+        return cmp != 0 ? cmp : Integer.compare(first.getStartNano(), second.getStartNano());
+    }
 
     // Метод проверки пересечения временных интервалов
     private boolean hasTimeOverlap(Task taskToCheck) {
-        if (taskToCheck.getStartTime() == null || taskToCheck.getEndTime() == null) {
-            return false;
+        // Текущую задачу исключаем по id
+        return timeIndex.overlaps(taskToCheck);
+    }
+
+    // Добавление и удаление из отсортированного списка, индекса интервалов и списка задач без времени
+    protected void addPrioritized(Task task) {
+        if (task.hasStartTime()) {
+            sortedTasks.add(task);
+            timeIndex.add(task);
+        } else {
+            untimedTasks.put(task.getId(), task);
         }
+        prioritizedView = null;
+    }
+
+    protected void removePrioritized(Task task) {
+        sortedTasks.remove(task);
+        timeIndex.remove(task.getId());
+        untimedTasks.remove(task.getId());
+        prioritizedView = null;
+    }
+
+    // Одно логическое изменение: версия растёт один раз, слушатели получают id каждой затронутой задачи.
+    // Вызывается публичными методами после успешного изменения, а не из индексов: снятие и возврат
+    // задачи при обновлении или откат отклонённого обновления не должны сбрасывать чужие ответы
+    private void changed(int... ids) {
+        version++;
+        for (IntConsumer listener : changeListeners) {
+            for (int id : ids) {
+                listener.accept(id);
+            }
+        }
+    }
+
+    private static int[] idsOf(Collection<? extends Task> items) {
+        int[] ids = new int[items.size()];
+        int i = 0;
+        for (Task item : items) {
+            ids[i++] = item.getId();
+        }
+        return ids;
+    }
 
-        return sortedTasks.stream()
-                .filter(task -> task.getId() != taskToCheck.getId()) // Исключаем текущую задачу
-                .filter(task -> task.getStartTime() != null && task.getEndTime() != null)
-                .anyMatch(task -> isTimeOverlap(task, taskToCheck));
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void addChangeListener(IntConsumer listener) {
+        changeListeners.add(listener);
     }
 
-    private boolean isTimeOverlap(Task task1, Task task2) {
-        return !task1.getEndTime().isBefore(task2.getStartTime()) &&
-                !task1.getStartTime().isAfter(task2.getEndTime());
+    @Override
+    public void removeChangeListener(IntConsumer listener) {
+        changeListeners.remove(listener);
+    }
+
+    // Массовая загрузка в пустые индексы: одна параллельная сортировка и построение дерева интервалов за O(n)
+    protected void addAllPrioritized(Collection<? extends Task> items) {
+        if (!sortedTasks.isEmpty()) {
+            items.forEach(this::addPrioritized);
+            return;
+        }
+
+        Task[] timed = items.stream()
+                .filter(Task::hasStartTime)
+                .toArray(Task[]::new);
+        for (Task task : items) {
+            if (!task.hasStartTime()) {
+                untimedTasks.put(task.getId(), task);
+            }
+        }
+        Arrays.parallelSort(timed, sortedTasks.comparator());
+        List<Task> sorted = Arrays.asList(timed);
+
+        sortedTasks.addAll(sorted);
+        timeIndex.rebuild(sorted);
+        prioritizedView = null;
     }
 
     // Общий метод добавления задач
-    private <T extends Task> T safeAdd(T task, Map<Integer, T> storage) {
+    private <T extends Task> T safeAdd(T task, IntHashMap<T> storage) {
         if (hasTimeOverlap(task)) {
             throw new IllegalArgumentException("Задача пересекается по времени с существующей");
         }
@@ -44,17 +178,18 @@ public class InMemoryTaskManager implements TaskManager {
             nextId = task.getId() + 1;
         }
 
-        storage.put(task.getId(), task);
-        if (task.getStartTime() != null) {
-            sortedTasks.add(task);
-        }
-        return task;
+        T stored = toStored(task);
+        storage.put(stored.getId(), stored);
+        addPrioritized(stored);
+        return stored;
     }
 
     // Методы создания задач
     @Override
     public Task createTask(Task task) {
-        return safeAdd(task, tasks);
+        Task created = safeAdd(task, tasks);
+        changed(created.getId());
+        return created;
     }
 
     @Override
@@ -68,8 +203,11 @@ public class InMemoryTaskManager implements TaskManager {
 
         Subtask created = safeAdd(subtask, subtasks);
         Epic epic = epics.get(subtask.getEpicId());
-        epic.addSubtask(created.getId());
-        updateEpic(epic); // Теперь updateEpic будет обновлять и статус и время
+        // Эпик переиндексируется: его время меняется вместе с агрегатами
+        removePrioritized(epic);
+        epic.addSubtask(created);
+        addPrioritized(epic);
+        changed(created.getId(), epic.getId());
         return created;
     }
 
@@ -81,8 +219,11 @@ public class InMemoryTaskManager implements TaskManager {
         } else if (epic.getId() >= nextId) {
             nextId = epic.getId() + 1;
         }
-        epics.put(epic.getId(), epic);
-        return epic;
+        Epic stored = toStored(epic);
+        epics.put(stored.getId(), stored);
+        addPrioritized(stored);
+        changed(stored.getId());
+        return stored;
     }
 
     // Методы удаления задач
@@ -90,8 +231,9 @@ public class InMemoryTaskManager implements TaskManager {
     public void deleteTask(int id) {
         Task task = tasks.remove(id);
         if (task != null) {
-            sortedTasks.remove(task);
-            historyManager.remove(id);
+            removePrioritized(task);
+            forget(id);
+            changed(id);
         }
     }
 
@@ -99,14 +241,17 @@ public class InMemoryTaskManager implements TaskManager {
     public void deleteSubtask(int id) {
         Subtask subtask = subtasks.remove(id);
         if (subtask != null) {
-            sortedTasks.remove(subtask);
-            historyManager.remove(id);
+            removePrioritized(subtask);
+            forget(id);
 
             Epic epic = epics.get(subtask.getEpicId());
             if (epic != null) {
-                epic.removeSubtask(id); // ← исправлено здесь
-                updateEpicTime(epic.getId());
-                updateEpicStatus(epic.getId());
+                removePrioritized(epic);
+                epic.removeSubtask(id); // статус и время пересчитываются по агрегатам
+                addPrioritized(epic);
+                changed(id, epic.getId());
+            } else {
+                changed(id);
             }
         }
     }
@@ -115,16 +260,22 @@ public class InMemoryTaskManager implements TaskManager {
     public void deleteEpic(int id) {
         Epic epic = epics.remove(id);
         if (epic != null) {
-            historyManager.remove(id);
+            removePrioritized(epic);
+            forget(id);
 
             // Удаляем все подзадачи эпика
-            for (int subtaskId : new ArrayList<>(epic.getSubtaskIds())) {
+            int[] removed = new int[epic.getSubtaskCount() + 1];
+            removed[0] = id;
+            int[] count = {1};
+            epic.forEachSubtaskId(subtaskId -> {
                 Subtask subtask = subtasks.remove(subtaskId);
                 if (subtask != null) {
-                    sortedTasks.remove(subtask);
-                    historyManager.remove(subtaskId);
+                    removePrioritized(subtask);
+                    forget(subtaskId);
+                    removed[count[0]++] = subtaskId;
                 }
-            }
+            });
+            changed(Arrays.copyOf(removed, count[0]));
         }
     }
 
@@ -134,15 +285,17 @@ public class InMemoryTaskManager implements TaskManager {
         if (!tasks.containsKey(task.getId())) return;
 
         Task oldTask = tasks.get(task.getId());
-        sortedTasks.remove(oldTask);
+        removePrioritized(oldTask);
 
         if (hasTimeOverlap(task)) {
-            sortedTasks.add(oldTask);
+            addPrioritized(oldTask);
             throw new IllegalArgumentException("Обновление создает пересечение по времени");
         }
 
-        tasks.put(task.getId(), task);
-        sortedTasks.add(task);
+        Task stored = toStored(task);
+        tasks.put(stored.getId(), stored);
+        addPrioritized(stored);
+        changed(stored.getId());
     }
 
     @Override
@@ -150,26 +303,28 @@ public class InMemoryTaskManager implements TaskManager {
         if (!subtasks.containsKey(subtask.getId())) return;
 
         Subtask oldSubtask = subtasks.get(subtask.getId());
-        sortedTasks.remove(oldSubtask);
+        removePrioritized(oldSubtask);
 
         // Проверяем пересечение с другими задачами (кроме себя)
         if (hasTimeOverlap(subtask)) {
-            sortedTasks.add(oldSubtask); // Восстанавливаем оригинальную задачу
+            addPrioritized(oldSubtask); // Восстанавливаем оригинальную задачу
             throw new IllegalArgumentException("Обновление создает пересечение по времени");
         }
 
-        subtasks.put(subtask.getId(), subtask);
-        sortedTasks.add(subtask);
+        Subtask stored = toStored(subtask);
+        subtasks.put(stored.getId(), stored);
+        addPrioritized(stored);
 
         // Обновляем время эпика после изменения подзадачи
         Epic epic = epics.get(subtask.getEpicId());
         if (epic != null) {
-            epic.recalcTime(getEpicSubtasks(epic.getId()));
-            // Обновляем эпик в sortedTasks
-            sortedTasks.remove(epic);
-            if (epic.getStartTime() != null) {
-                sortedTasks.add(epic);
-            }
+            // Обновляем вклад подзадачи в агрегаты эпика и сам эпик в sortedTasks
+            removePrioritized(epic);
+            epic.addSubtask(stored);
+            addPrioritized(epic);
+            changed(subtask.getId(), epic.getId());
+        } else {
+            changed(subtask.getId());
         }
     }
 
@@ -180,31 +335,30 @@ public class InMemoryTaskManager implements TaskManager {
         Epic savedEpic = epics.get(epic.getId());
         savedEpic.setName(epic.getName());
         savedEpic.setDescription(epic.getDescription());
+        toStored(savedEpic);
 
         // Обновляем и статус и время
         updateEpicStatus(savedEpic.getId());
         updateEpicTime(savedEpic.getId());
+        changed(savedEpic.getId());
     }
 
-    private void updateEpicTime(int epicId) {
+    void updateEpicTime(int epicId) {
         Epic epic = epics.get(epicId);
         if (epic == null) return;
 
-        sortedTasks.remove(epic);
-
-        List<Subtask> subtasks = getEpicSubtasks(epicId);
-        epic.recalcTime(subtasks);
-
-        if (epic.getStartTime() != null) {
-            sortedTasks.add(epic);
-        }
+        removePrioritized(epic);
+        epic.recalcTime();
+        addPrioritized(epic);
     }
 
     // Методы получения задач с добавлением в историю
     @Override
     public Task getTask(int id) {
         Task task = tasks.get(id);
-        historyManager.add(task);
+        if (task != null) {
+            viewed(task);
+        }
         return task;
     }
 
@@ -212,7 +366,7 @@ public class InMemoryTaskManager implements TaskManager {
     public Epic getEpic(int id) {
         Epic epic = epics.get(id);
         if (epic != null) {
-            historyManager.add(epic);
+            viewed(epic);
         }
         return epic;
     }
@@ -221,63 +375,111 @@ public class InMemoryTaskManager implements TaskManager {
     public Subtask getSubtask(int id) {
         Subtask subtask = subtasks.get(id);
         if (subtask != null) {
-            historyManager.add(subtask);
+            viewed(subtask);
         }
         return subtask;
     }
 
+    private void viewed(Task task) {
+        historyManager.add(task);
+        accessFrequency.record(task.getId());
+    }
+
+    // Удалённая задача пропадает из истории и из самых запрашиваемых
+    private void forget(int id) {
+        historyManager.remove(id);
+        accessFrequency.remove(id);
+    }
+
+    @Override
+    public List<Task> getHotTasks(int k) {
+        List<Task> result = new ArrayList<>();
+        for (int id : accessFrequency.hottest(k)) {
+            Task task = tasks.get(id);
+            if (task == null) {
+                task = epics.get(id);
+            }
+            if (task == null) {
+                task = subtasks.get(id);
+            }
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int getAccessFrequency(int id) {
+        return accessFrequency.estimate(id);
+    }
+
     // Методы массового удаления
     @Override
     public void deleteAllTasks() {
+        int[] removed = idsOf(tasks.values());
         for (Task task : tasks.values()) {
-            sortedTasks.remove(task);
-            historyManager.remove(task.getId());
+            removePrioritized(task);
+            forget(task.getId());
         }
         tasks.clear();
+        changed(removed);
     }
 
     @Override
     public void deleteAllEpics() {
+        int[] removedEpics = idsOf(epics.values());
+        int[] removedSubtasks = idsOf(subtasks.values());
         for (Epic epic : epics.values()) {
-            historyManager.remove(epic.getId());
+            removePrioritized(epic);
+            forget(epic.getId());
         }
         epics.clear();
 
         for (Subtask subtask : subtasks.values()) {
-            sortedTasks.remove(subtask);
-            historyManager.remove(subtask.getId());
+            removePrioritized(subtask);
+            forget(subtask.getId());
         }
         subtasks.clear();
+        changed(concat(removedEpics, removedSubtasks));
     }
 
     @Override
     public void deleteAllSubtasks() {
+        int[] affected = concat(idsOf(epics.values()), idsOf(subtasks.values()));
+        // Каждый эпик очищается один раз, а не по разу на подзадачу
+        for (Epic epic : epics.values()) {
+            removePrioritized(epic);
+            epic.clearSubtasks();
+            addPrioritized(epic);
+        }
         for (Subtask subtask : subtasks.values()) {
-            int epicId = subtask.getEpicId();
-            Epic epic = epics.get(epicId);
-            if (epic != null) {
-                epic.removeSubtask(subtask.getId()); // Удаляет ID из subtaskIds
-                updateEpicStatus(epicId);
-                updateEpicTime(epicId);
-            }
-            historyManager.remove(subtask.getId());
-            sortedTasks.remove(subtask);
+            forget(subtask.getId());
+            removePrioritized(subtask);
         }
         subtasks.clear(); // Чистим карту
+        changed(affected);
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
     }
 
-    // Вспомогательные методы
-    private List<Subtask> getEpicSubtasks(int epicId) {
-        List<Subtask> result = new ArrayList<>();
+    // Подзадачи эпика по его списку id — без перебора всех подзадач
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
         Epic epic = epics.get(epicId);
-        if (epic == null) return result;
+        if (epic == null) return new ArrayList<>();
 
-        for (Integer subtaskId : epic.getSubtaskIds()) {
+        List<Subtask> result = new ArrayList<>(epic.getSubtaskCount());
+        epic.forEachSubtaskId(subtaskId -> {
             Subtask subtask = subtasks.get(subtaskId);
             if (subtask != null) {
                 result.add(subtask);
             }
-        }
+        });
         return result;
     }
 
@@ -285,63 +487,89 @@ public class InMemoryTaskManager implements TaskManager {
         Epic epic = epics.get(epicId);
         if (epic == null) return;
 
-        List<Subtask> subtasks = getEpicSubtasks(epicId);
-        if (subtasks.isEmpty()) {
-            epic.setStatus(Status.NEW);
-            return;
-        }
-
-        boolean hasNew = false;
-        boolean hasInProgress = false;
-        boolean hasDone = false;
-
-        for (Subtask subtask : subtasks) {
-            switch (subtask.getStatus()) {
-                case NEW:
-                    hasNew = true;
-                    break;
-                case IN_PROGRESS:
-                    hasInProgress = true;
-                    break;
-                case DONE:
-                    hasDone = true;
-                    break;
-            }
-        }
-
-        if (hasInProgress || (hasNew && hasDone)) {
-            epic.setStatus(Status.IN_PROGRESS);
-        } else if (hasNew) {
-            epic.setStatus(Status.NEW);
-        } else {
-            epic.setStatus(Status.DONE);
-        }
+        epic.recalcStatus();
     }
 
     // Другие методы
     @Override
     public List<Task> getPrioritizedTasks() {
-        List<Task> result = new ArrayList<>(sortedTasks); // задачи с временем
+        // Между изменениями повторные чтения возвращают один и тот же готовый список
+        List<Task> view = prioritizedView;
+        if (view == null) {
+            List<Task> result = new ArrayList<>(sortedTasks.size() + untimedTasks.size());
+            result.addAll(sortedTasks); // задачи с временем
+            result.addAll(untimedTasks.values()); // затем задачи без времени
+            view = Collections.unmodifiableList(result);
+            prioritizedView = view;
+        }
+        return view;
+    }
 
-        // Добавляем задачи без времени
-        for (Task task : tasks.values()) {
-            if (task.getStartTime() == null) {
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime afterStartTime, int afterId, int limit) {
+        List<Task> result = new ArrayList<>();
+        boolean fromStart = afterStartTime == null && afterId == 0;
+        if (afterStartTime != null || fromStart) {
+            Iterable<Task> timed = fromStart ? sortedTasks
+                    : sortedTasks.tailSet(new Task(null, null, afterId, null, afterStartTime, null), false);
+            for (Task task : timed) {
+                if (result.size() >= limit) {
+                    return result;
+                }
                 result.add(task);
             }
         }
 
-        for (Subtask subtask : subtasks.values()) {
-            if (subtask.getStartTime() == null) {
-                result.add(subtask);
+        int untimedAfter = afterStartTime == null ? afterId : 0;
+        for (Task task : untimedTasks.valuesAfter(untimedAfter)) {
+            if (result.size() >= limit) {
+                break;
             }
+            result.add(task);
         }
+        return result;
+    }
 
-        for (Epic epic : epics.values()) {
-            if (epic.getStartTime() == null) {
-                result.add(epic);
-            }
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            return new ArrayList<>();
+        }
+        return timeIndex.findOverlapping(from, to);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to,
+                                                 LocalDateTime afterStartTime, int afterId, int limit) {
+        if (from == null || to == null || from.isAfter(to) || afterStartTime == null && afterId != 0) {
+            return new ArrayList<>();
         }
+        return timeIndex.findOverlapping(from, to, afterStartTime, afterId, limit);
+    }
+
+    @Override
+    public List<Task> getTasks(int afterId, int limit) {
+        return page(tasks, afterId, limit);
+    }
 
+    @Override
+    public List<Epic> getEpics(int afterId, int limit) {
+        return page(epics, afterId, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasks(int afterId, int limit) {
+        return page(subtasks, afterId, limit);
+    }
+
+    private static <T> List<T> page(SortedIntHashMap<T> storage, int afterId, int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, storage.size()));
+        for (T item : storage.valuesAfter(afterId)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(item);
+        }
         return result;
     }
 
@@ -364,4 +592,9 @@ public class InMemoryTaskManager implements TaskManager {
     public List<Task> getHistory() {
         return historyManager.getHistory();
     }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return historyManager.getHistory(offset, limit);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,304 @@
+package main.manager;
+
+import main.models.Task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Индекс временных интервалов: AVL-дерево по (startTime, id),
+// каждый узел хранит максимальный endTime своего поддерева.
+// Проверка пересечения выполняется за O(log n) вместо полного перебора.
+// Время в узлах — секунды и наносекунды от 1970-01-01T00:00: узел не держит объектов времени,
+// а проверка пересечения для задачи их не создаёт.
+public class IntervalIndex {
+    private static class Node {
+        final Task task;
+        final long startSecond;
+        final int startNano;
+        final long endSecond;
+        final int endNano;
+        final int id;
+        long maxEndSecond;
+        int maxEndNano;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(Task task) {
+            this.task = task;
+            this.startSecond = task.getStartSecond();
+            this.startNano = task.getStartNano();
+            this.endSecond = task.getEndSecond();
+            this.endNano = task.getEndNano();
+            this.id = task.getId();
+            this.maxEndSecond = endSecond;
+            this.maxEndNano = endNano;
+        }
+
+        // Все интервалы поддерева заканчиваются раньше момента
+        boolean endsBefore(long second, int nano) {
+            return compare(maxEndSecond, maxEndNano, second, nano) < 0;
+        }
+    }
+
+    private final IntHashMap<Node> nodesById = new IntHashMap<>();
+    private Node root;
+
+    public void add(Task task) {
+        if (task == null || !task.hasEndTime()) {
+            return;
+        }
+        remove(task.getId());
+        Node node = new Node(task);
+        root = insert(root, node);
+        nodesById.put(node.id, node);
+    }
+
+    public void remove(int id) {
+        Node node = nodesById.remove(id);
+        if (node != null) {
+            root = delete(root, node.startSecond, node.startNano, node.id);
+        }
+    }
+
+    public boolean contains(int id) {
+        return nodesById.containsKey(id);
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+
+    public void clear() {
+        nodesById.clear();
+        root = null;
+    }
+
+    // Построение сбалансированного дерева за O(n) из задач, отсортированных по (startTime, id)
+    public void rebuild(List<? extends Task> sorted) {
+        clear();
+        Node[] nodes = new Node[sorted.size()];
+        int count = 0;
+        for (Task task : sorted) {
+            if (task.hasEndTime()) {
+                Node node = new Node(task);
+                nodes[count++] = node;
+                nodesById.put(node.id, node);
+            }
+        }
+        root = build(nodes, 0, count - 1);
+    }
+
+    private static Node build(Node[] nodes, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Node node = nodes[middle];
+        node.left = build(nodes, from, middle - 1);
+        node.right = build(nodes, middle + 1, to);
+        update(node);
+        return node;
+    }
+
+    // Есть ли интервал, пересекающий [start, end], кроме задачи с excludeId.
+    // Границы включительные — так же, как в прежней проверке isTimeOverlap.
+    public boolean overlaps(LocalDateTime start, LocalDateTime end, int excludeId) {
+        if (start == null || end == null) {
+            return false;
+        }
+        return findOverlap(root, seconds(start), start.getNano(), seconds(end), end.getNano(), excludeId);
+    }
+
+    // Пересекается ли задача с другими интервалами индекса (саму задачу исключаем по id)
+    public boolean overlaps(Task task) {
+        if (!task.hasEndTime()) {
+            return false;
+        }
+        return findOverlap(root, task.getStartSecond(), task.getStartNano(),
+                task.getEndSecond(), task.getEndNano(), task.getId());
+    }
+
+    // Все интервалы, пересекающие [start, end], в порядке (startTime, id) — за O(log n + k)
+    public List<Task> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        return findOverlapping(start, end, null, 0, Integer.MAX_VALUE);
+    }
+
+    // Не больше limit интервалов, пересекающих [start, end], после (afterStart, afterId) в порядке (startTime, id).
+    // afterStart == null — с начала; поддеревья до курсора не обходятся, обход останавливается на limit
+    public List<Task> findOverlapping(LocalDateTime start, LocalDateTime end,
+                                      LocalDateTime afterStart, int afterId, int limit) {
+        List<Task> result = new ArrayList<>(Math.min(limit, 16));
+        Cursor cursor = afterStart == null
+                ? new Cursor(Long.MIN_VALUE, 0, Integer.MIN_VALUE, limit)
+                : new Cursor(seconds(afterStart), afterStart.getNano(), afterId, limit);
+        collectOverlapping(root, seconds(start), start.getNano(), seconds(end), end.getNano(), cursor, result);
+        return result;
+    }
+
+    private record Cursor(long startSecond, int startNano, int id, int limit) {
+    }
+
+    private void collectOverlapping(Node node, long startSecond, int startNano, long endSecond, int endNano,
+                                    Cursor cursor, List<Task> result) {
+        if (node == null || result.size() >= cursor.limit() || node.endsBefore(startSecond, startNano)) {
+            return;
+        }
+        // Узел и его левое поддерево не позже курсора — сразу направо
+        if (compare(cursor.startSecond(), cursor.startNano(), cursor.id(), node) < 0) {
+            collectOverlapping(node.left, startSecond, startNano, endSecond, endNano, cursor, result);
+            if (result.size() >= cursor.limit()) {
+                return;
+            }
+            if (compare(node.startSecond, node.startNano, endSecond, endNano) > 0) {
+                return;
+            }
+            if (compare(node.endSecond, node.endNano, startSecond, startNano) >= 0) {
+                result.add(node.task);
+            }
+        } else if (compare(node.startSecond, node.startNano, endSecond, endNano) > 0) {
+            return;
+        }
+        collectOverlapping(node.right, startSecond, startNano, endSecond, endNano, cursor, result);
+    }
+
+    private boolean findOverlap(Node node, long startSecond, int startNano, long endSecond, int endNano,
+                                int excludeId) {
+        while (node != null) {
+            if (node.endsBefore(startSecond, startNano)) {
+                return false; // в поддереве все интервалы заканчиваются раньше
+            }
+            if (node.left != null && !node.left.endsBefore(startSecond, startNano)) {
+                if (findOverlap(node.left, startSecond, startNano, endSecond, endNano, excludeId)) {
+                    return true;
+                }
+            }
+            if (compare(node.startSecond, node.startNano, endSecond, endNano) > 0) {
+                return false; // правее начинаются только более поздние интервалы
+            }
+            if (node.id != excludeId && compare(node.endSecond, node.endNano, startSecond, startNano) >= 0) {
+                return true;
+            }
+            node = node.right;
+        }
+        return false;
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int compare(long second, int nano, long otherSecond, int otherNano) {
+        int cmp = Long.compare(second, otherSecond);
+        return cmp != 0 ? cmp : Integer.compare(nano, otherNano);
+    }
+
+    private static int compare(long startSecond, int startNano, int id, Node node) {
+        int cmp = compare(startSecond, startNano, node.startSecond, node.startNano);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.startSecond, newNode.startNano, newNode.id, node) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long startSecond, int startNano, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(startSecond, startNano, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, startSecond, startNano, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, startSecond, startNano, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEndSecond = node.endSecond;
+        node.maxEndNano = node.endNano;
+        raiseMaxEnd(node, node.left);
+        raiseMaxEnd(node, node.right);
+    }
+
+    private static void raiseMaxEnd(Node node, Node child) {
+        if (child != null && compare(child.maxEndSecond, child.maxEndNano, node.maxEndSecond, node.maxEndNano) > 0) {
+            node.maxEndSecond = child.maxEndSecond;
+            node.maxEndNano = child.maxEndNano;
+        }
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+}
@@ -0,0 +1,269 @@
+package main.manager;
+
+import main.enums.FsyncPolicy;
+import main.enums.TaskType;
+import main.models.Task;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Журналируемое хранение: снимок в CSV (как у FileBackedTaskManager) плюс журнал изменений.
+// Каждое изменение дописывает в журнал одну запись, поэтому стоимость записи — O(размер записи),
+// а не O(размер доски). Когда журнал разрастается, снимок переписывается и журнал очищается.
+//
+// Формат записей журнала:
+//   PUT,<строка задачи в формате CSV>
+//   DEL,<тип>,<id>
+//   CLR,<тип>
+//
+// Журнал держится открытым одним каналом; fsyncPolicy: EACH — force после каждой записи,
+// BATCH — при сворачивании журнала и close(), NONE — синхронизацию выполняет ОС.
+// При загрузке отбрасывается только недописанная последняя запись (без перевода строки);
+// любая другая нечитаемая запись — повреждение, и загрузка падает, не трогая журнал.
+// Класс закрыт для наследования: новая доска сразу пишет пустой снимок из конструктора.
+public final class JournaledTaskManager extends FileBackedTaskManager implements AutoCloseable {
+    public static final int DEFAULT_COMPACT_THRESHOLD = 10_000;
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DEL";
+    private static final String CLEAR = "CLR";
+
+    private final File journal;
+    private final int compactThreshold;
+    private final FsyncPolicy fsyncPolicy;
+    private FileChannel channel; // открывается при первой записи
+    private int journalRecords;
+    private boolean tornTail;
+
+    public JournaledTaskManager(File file) {
+        this(file, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public JournaledTaskManager(File file, int compactThreshold) {
+        this(file, compactThreshold, FsyncPolicy.EACH);
+    }
+
+    public JournaledTaskManager(File file, int compactThreshold, FsyncPolicy fsyncPolicy) {
+        this(file, compactThreshold, fsyncPolicy, false);
+    }
+
+    JournaledTaskManager(File file, int compactThreshold, FsyncPolicy fsyncPolicy, boolean restoring) {
+        super(file, restoring);
+        this.journal = journalFile(file);
+        this.compactThreshold = compactThreshold;
+        this.fsyncPolicy = fsyncPolicy;
+        // Новая доска: прежние снимок и журнал по тому же пути иначе воскресли бы при загрузке
+        if (!restoring) {
+            save();
+        }
+    }
+
+    public static File journalFile(File file) {
+        return new File(file.getPath() + ".log");
+    }
+
+    public static JournaledTaskManager loadFromFile(File file) {
+        return loadFromFile(file, FsyncPolicy.EACH);
+    }
+
+    public static JournaledTaskManager loadFromFile(File file, FsyncPolicy fsyncPolicy) {
+        JournaledTaskManager manager = new JournaledTaskManager(file, DEFAULT_COMPACT_THRESHOLD, fsyncPolicy, true);
+        manager.load();
+        return manager;
+    }
+
+    @Override
+    protected void load() {
+        if (file.exists() || !journal.exists()) {
+            readSnapshot();
+        }
+        replayJournal();
+        dropOrphanSubtasks();
+        relinkEpics();
+        restoreHistory();
+
+        // После восстановления журнал сворачивается в снимок: удалённые id не должны
+        // пересекаться с новыми при повторном воспроизведении, а новые записи — продолжать оборванную строку
+        if (journalRecords > 0 || tornTail) {
+            save();
+        }
+    }
+
+    @Override
+    protected void onSaved(Task task) {
+        append(PUT + "," + taskToCsv(task));
+    }
+
+    @Override
+    protected void onDeleted(TaskType type, int id) {
+        append(DELETE + "," + type + "," + id);
+    }
+
+    @Override
+    protected void onCleared(TaskType type) {
+        append(CLEAR + "," + type);
+    }
+
+    // Снимок пишется во временный файл и атомарно подменяет старый, после чего журнал больше не нужен
+    @Override
+    protected void save() {
+        File temp = new File(file.getPath() + ".tmp");
+        writeSnapshot(temp);
+        try {
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                try (FileChannel snapshot = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+                    snapshot.force(true); // снимок на диске раньше, чем удаляется журнал
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            closeChannel();
+            Files.deleteIfExists(journal.toPath());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения снимка", e);
+        }
+        journalRecords = 0;
+        tornTail = false;
+    }
+
+    private void append(String record) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(journal.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer bytes = ByteBuffer.wrap((record + "\n").getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (fsyncPolicy == FsyncPolicy.EACH) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи в журнал", e);
+        }
+
+        if (++journalRecords >= compactThreshold) {
+            save();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (channel != null && fsyncPolicy != FsyncPolicy.NONE) {
+                channel.force(false);
+            }
+            closeChannel();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка закрытия журнала", e);
+        }
+        flushHistory();
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void replayJournal() {
+        if (!journal.exists()) {
+            return;
+        }
+
+        try (InputStream in = new FileInputStream(journal)) {
+            CsvTaskReader reader = new CsvTaskReader(in);
+            while (reader.nextRecord()) {
+                // Запись без перевода строки может быть только последней — её оборвал сбой во время записи
+                if (!reader.recordTerminated()) {
+                    tornTail = true;
+                    break;
+                }
+                if (!applyRecord(reader)) {
+                    throw new IllegalStateException("Повреждённая запись журнала №" + (journalRecords + 1)
+                            + ": " + journal.getName());
+                }
+                journalRecords++;
+            }
+            if (reader.stoppedAtBlankLine()) {
+                throw new IllegalStateException("Пустая строка в журнале после записи №" + journalRecords
+                        + ": " + journal.getName());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Ошибка при загрузке журнала: " + journal.getName(), e);
+        }
+    }
+
+    private boolean applyRecord(CsvTaskReader record) {
+        try {
+            switch (record.field(0)) {
+                case PUT:
+                    Task task = record.toTask(1);
+                    if (task == null) return false;
+                    restoreTask(task);
+                    return true;
+                case DELETE:
+                    discardRestored(TaskType.valueOf(record.field(1)), record.intField(2));
+                    return true;
+                case CLEAR:
+                    discardAllRestored(TaskType.valueOf(record.field(1)));
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void discardRestored(TaskType type, int id) {
+        Task removed;
+        switch (type) {
+            case TASK:
+                removed = tasks.remove(id);
+                break;
+            case EPIC:
+                removed = epics.remove(id); // подзадачи без эпика удаляются после воспроизведения
+                break;
+            case SUBTASK:
+                removed = subtasks.remove(id);
+                break;
+            default:
+                throw new IllegalStateException("Неизвестный тип задачи: " + type);
+        }
+        if (removed != null) {
+            removePrioritized(removed);
+        }
+    }
+
+    private void discardAllRestored(TaskType type) {
+        switch (type) {
+            case TASK:
+                tasks.values().forEach(this::removePrioritized);
+                tasks.clear();
+                break;
+            case EPIC:
+                epics.values().forEach(this::removePrioritized);
+                epics.clear();
+                subtasks.values().forEach(this::removePrioritized);
+                subtasks.clear();
+                break;
+            case SUBTASK:
+                subtasks.values().forEach(this::removePrioritized);
+                subtasks.clear();
+                break;
+            default:
+                throw new IllegalStateException("Неизвестный тип задачи: " + type);
+        }
+    }
+}
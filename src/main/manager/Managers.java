@@ -1,11 +1,34 @@
 package main.manager;
 
+import main.enums.StorageMode;
+
 public class Managers {
+    // Ёмкость истории по умолчанию: на долго работающем сервере она не растёт до размера доски
+    public static final int DEFAULT_HISTORY_SIZE = 10_000;
+
     public static TaskManager getDefault() {
         return new InMemoryTaskManager();
     }
 
+    // Менеджер с компактным хранением задач: меньше памяти на задачу при больших досках
+    public static TaskManager getDefault(StorageMode storageMode) {
+        return new InMemoryTaskManager(getDefaultHistory(), storageMode);
+    }
+
+    // Потокобезопасный менеджер для многопоточного HTTP-сервера
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
     public static HistoryManager getDefaultHistory() {
-        return new InMemoryHistoryManager();
+        return getDefaultHistory(DEFAULT_HISTORY_SIZE);
+    }
+
+    public static HistoryManager getDefaultHistory(int maxSize) {
+        return new InMemoryHistoryManager(maxSize);
+    }
+
+    public static HistoryManager getDefaultHistory(int maxSize, long maxBytes) {
+        return new InMemoryHistoryManager(maxSize, maxBytes);
     }
 }
@@ -0,0 +1,145 @@
+package main.manager;
+
+import main.models.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Параллельное чтение CSV-снимка: файл отображается в память, делится на куски по границам записей,
+// куски разбираются параллельно в пуле fork-join, результаты склеиваются в исходном порядке.
+// Как и последовательная загрузка, пропускает заголовок и останавливается на первой пустой строке.
+class ParallelCsvReader {
+    private static final long MIN_CHUNK = 64 << 10;
+    private static final long MAX_CHUNK = 64L << 20;
+
+    private final File source;
+    private final ForkJoinPool pool;
+
+    ParallelCsvReader(File source, ForkJoinPool pool) {
+        this.source = source;
+        this.pool = pool;
+    }
+
+    // Результат разбора куска: задачи и признак того, что встретилась пустая строка
+    private record Chunk(List<Task> tasks, boolean stopped) {
+    }
+
+    List<Task> read() {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = lineEnd(channel, 0); // заголовок
+            if (start >= size) {
+                return new ArrayList<>();
+            }
+
+            long chunkSize = Math.clamp((size - start) / (pool.getParallelism() * 4L), MIN_CHUNK, MAX_CHUNK);
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(start);
+            while (start < size) {
+                start = start + chunkSize >= size ? size : lineEnd(channel, start + chunkSize);
+                bounds.add(start);
+            }
+            bounds = dropQuotedBounds(channel, bounds);
+
+            List<Callable<Chunk>> parts = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.size(); i++) {
+                long from = bounds.get(i);
+                long end = bounds.get(i + 1);
+                parts.add(() -> parse(channel.map(FileChannel.MapMode.READ_ONLY, from, end - from)));
+            }
+
+            List<Task> result = new ArrayList<>();
+            for (Future<Chunk> part : pool.invokeAll(parts)) {
+                Chunk chunk = part.get();
+                result.addAll(chunk.tasks());
+                if (chunk.stopped()) break;
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при загрузке из файла: " + source.getName(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Ошибка при загрузке из файла: " + source.getName(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Загрузка прервана: " + source.getName(), e);
+        }
+    }
+
+    // Позиция сразу после ближайшего перевода строки, начиная с position (или конец файла)
+    private static long lineEnd(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long size = channel.size();
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Перевод строки внутри поля в кавычках не может быть границей куска.
+    // Внутри кавычек позиция находится тогда, когда перед ней нечётное число символов '"'
+    // (экранированная кавычка "" не меняет чётность), поэтому кавычки подсчитываются параллельно по кускам.
+    private List<Long> dropQuotedBounds(FileChannel channel, List<Long> bounds)
+            throws InterruptedException, ExecutionException {
+        List<Callable<Long>> counts = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.size(); i++) {
+            long from = bounds.get(i);
+            long end = bounds.get(i + 1);
+            counts.add(() -> countQuotes(channel.map(FileChannel.MapMode.READ_ONLY, from, end - from)));
+        }
+
+        List<Long> result = new ArrayList<>();
+        result.add(bounds.getFirst());
+        long quotes = 0;
+        List<Future<Long>> futures = pool.invokeAll(counts);
+        for (int i = 0; i < futures.size(); i++) {
+            quotes += futures.get(i).get();
+            long bound = bounds.get(i + 1);
+            if (quotes % 2 == 0 || i + 1 == futures.size()) {
+                result.add(bound);
+            }
+        }
+        return result;
+    }
+
+    private static long countQuotes(MappedByteBuffer buffer) {
+        long count = 0;
+        for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+            if (buffer.get(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Chunk parse(MappedByteBuffer buffer) {
+        List<Task> tasks = new ArrayList<>();
+        CsvTaskReader reader = new CsvTaskReader(buffer);
+        Task task;
+        while ((task = reader.next()) != null) {
+            tasks.add(task);
+        }
+        return new Chunk(tasks, reader.stoppedAtBlankLine());
+    }
+}
@@ -0,0 +1,238 @@
+package main.manager;
+
+import main.models.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+// История, которая пишется в журнал id рядом с файлом менеджера.
+// Запись — 4 байта: id просмотренной задачи или -id удалённой из истории.
+// Просмотры копятся в памяти и дописываются в журнал пачкой, поэтому getTask не трогает диск на каждый вызов;
+// при сбое теряются только ещё не записанные просмотры. Когда журнал заметно длиннее самой истории,
+// он переписывается текущим содержимым истории (не чаще, чем раз в четыре длины истории после сжатия).
+// Если журнал не удаётся записать, чтение задач не падает: ошибка запоминается, просмотры остаются в буфере,
+// а повторная попытка откладывается всё дольше (вдвое после каждой неудачи, до MAX_PENDING_RECORDS просмотров).
+// Буфер не растёт дальше MAX_PENDING_RECORDS: тогда он отбрасывается, и при первой удачной записи журнал
+// переписывается текущей историей. Недописанный хвост обрезается, чтобы записи не легли со сдвигом.
+// Ошибку записи получает только явный вызов flush().
+public class PersistentHistoryManager implements HistoryManager {
+    public static final int DEFAULT_FLUSH_BATCH = 64;
+    public static final int MAX_PENDING_RECORDS = 16_384;
+    private static final int MIN_COMPACT_RECORDS = 1_024;
+
+    private final HistoryManager delegate;
+    private final File log;
+    private final int flushBatch;
+    private int[] pending;
+    private int pendingCount;
+    // Просмотров с последней попытки записи и сколько их нужно до следующей автоматической попытки
+    private int sinceFlush;
+    private int flushInterval;
+    // Часть просмотров отброшена: журнал нужно переписать историей целиком
+    private boolean stale;
+    private FileBackedTaskManager.ManagerSaveException lastFailure;
+    private long logRecords;
+    private long compactAt = MIN_COMPACT_RECORDS;
+
+    public PersistentHistoryManager(File log, HistoryManager delegate) {
+        this(log, delegate, DEFAULT_FLUSH_BATCH);
+    }
+
+    public PersistentHistoryManager(File log, HistoryManager delegate, int flushBatch) {
+        if (flushBatch <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть положительным: " + flushBatch);
+        }
+        this.log = log;
+        this.delegate = delegate;
+        this.flushBatch = flushBatch;
+        this.pending = new int[flushBatch];
+        this.flushInterval = flushBatch;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        if (task == null) return;
+        delegate.add(task);
+        append(task.getId());
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+        append(-id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public synchronized List<Task> getHistory(int offset, int limit) {
+        return delegate.getHistory(offset, limit);
+    }
+
+    // Новая доска: прежний журнал ссылается на id чужих задач и отбрасывается
+    public synchronized void reset() {
+        pending = new int[flushBatch];
+        pendingCount = 0;
+        sinceFlush = 0;
+        flushInterval = flushBatch;
+        stale = false;
+        lastFailure = null;
+        logRecords = 0;
+        compactAt = MIN_COMPACT_RECORDS;
+        if (log.exists() && !log.delete()) {
+            throw new FileBackedTaskManager.ManagerSaveException("Не удалось очистить журнал истории " + log, null);
+        }
+    }
+
+    // Дописывает накопленные просмотры в журнал; ошибка записи пробрасывается
+    public synchronized void flush() {
+        sinceFlush = 0;
+        if (pendingCount == 0 && !stale) {
+            return;
+        }
+        try {
+            write();
+        } catch (FileBackedTaskManager.ManagerSaveException e) {
+            lastFailure = e;
+            flushInterval = Math.min(flushInterval * 2, MAX_PENDING_RECORDS);
+            throw e;
+        }
+        lastFailure = null;
+        flushInterval = flushBatch;
+    }
+
+    // Последняя ошибка записи журнала, если с тех пор запись не удалась ни разу; иначе null
+    public synchronized FileBackedTaskManager.ManagerSaveException getLastFailure() {
+        return lastFailure;
+    }
+
+    private void write() {
+        if (stale) {
+            compact(); // отброшенные просмотры уже в истории: она и записывается
+            stale = false;
+        } else {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(log, true)))) {
+                for (int i = 0; i < pendingCount; i++) {
+                    out.writeInt(pending[i]);
+                }
+            } catch (IOException e) {
+                truncateToWrittenRecords();
+                throw new FileBackedTaskManager.ManagerSaveException("Ошибка записи журнала истории", e);
+            }
+            logRecords += pendingCount;
+        }
+        pendingCount = 0;
+        if (pending.length > flushBatch) {
+            pending = new int[flushBatch]; // буфер, выросший за время сбоя, не держится дольше нужного
+        }
+
+        if (logRecords >= compactAt) {
+            compact();
+        }
+    }
+
+    // Воспроизводит журнал после загрузки задач; id, которых больше нет, пропускаются
+    public synchronized void replay(IntFunction<Task> lookup) {
+        if (!log.exists()) {
+            return;
+        }
+        long records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(log)))) {
+            while (true) {
+                int record;
+                try {
+                    record = in.readInt();
+                } catch (EOFException e) {
+                    break; // конец журнала или недописанная последняя запись
+                }
+                records++;
+                if (record > 0) {
+                    Task task = lookup.apply(record);
+                    if (task != null) {
+                        delegate.add(task);
+                    }
+                } else {
+                    delegate.remove(-record);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при загрузке журнала истории: " + log.getName(), e);
+        }
+        logRecords = records;
+        // Сжатие заодно отбрасывает недописанный хвост, чтобы новые записи не легли со сдвигом
+        if (records > delegate.getHistory().size() || log.length() != records * Integer.BYTES) {
+            compact();
+        }
+    }
+
+    // Журнал заменяется текущей историей: временный файл и атомарная подмена
+    private void compact() {
+        List<Task> history = delegate.getHistory();
+        File temp = new File(log.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            for (Task task : history) {
+                out.writeInt(task.getId());
+            }
+        } catch (IOException e) {
+            throw new FileBackedTaskManager.ManagerSaveException("Ошибка сжатия журнала истории", e);
+        }
+        try {
+            Files.move(temp.toPath(), log.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new FileBackedTaskManager.ManagerSaveException("Ошибка сжатия журнала истории", e);
+        }
+        logRecords = history.size();
+        compactAt = Math.max(MIN_COMPACT_RECORDS, 4L * logRecords);
+    }
+
+    // Отбрасывает часть пачки, успевшую попасть в журнал до ошибки: повторная запись начнётся с границы записи
+    private void truncateToWrittenRecords() {
+        if (!log.isFile()) {
+            return;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            if (file.length() > logRecords * Integer.BYTES) {
+                file.setLength(logRecords * Integer.BYTES);
+            }
+        } catch (IOException ignored) {
+            // журнал недоступен целиком — при следующей попытке пачка будет записана заново
+        }
+    }
+
+    private void append(int record) {
+        if (pendingCount == pending.length) {
+            if (pending.length >= MAX_PENDING_RECORDS) {
+                pendingCount = 0; // журнал давно недоступен: вместо хвоста просмотров запишется вся история
+                stale = true;
+            } else {
+                pending = Arrays.copyOf(pending, Math.min(pending.length * 2, MAX_PENDING_RECORDS));
+            }
+        }
+        pending[pendingCount++] = record;
+        if (++sinceFlush >= flushInterval) {
+            try {
+                flush();
+            } catch (FileBackedTaskManager.ManagerSaveException e) {
+                // просмотр уже в истории; ошибку запомнил flush(), её получит явный flush()
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package main.manager;
+
+import main.enums.TaskType;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Сегментированное хранение: каталог с файлами по типу задачи и диапазону id
+// (например, subtask-3.csv содержит подзадачи с id от 3 * segmentSize до 4 * segmentSize - 1).
+// Изменение помечает затронутые сегменты «грязными», и переписываются только они —
+// через временный файл и атомарное переименование.
+public class SegmentedTaskManager extends FileBackedTaskManager {
+    public static final int DEFAULT_SEGMENT_SIZE = 1024;
+    private static final String EXTENSION = ".csv";
+
+    private record Segment(TaskType type, int index) {
+        String fileName() {
+            return type.name().toLowerCase() + "-" + index + EXTENSION;
+        }
+    }
+
+    private final int segmentSize;
+    private final Set<Segment> segments = new HashSet<>(); // сегменты, которые есть на диске
+    private final Set<Segment> dirty = new HashSet<>();
+
+    public SegmentedTaskManager(File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SegmentedTaskManager(File directory, int segmentSize) {
+        this(directory, segmentSize, false);
+    }
+
+    SegmentedTaskManager(File directory, int segmentSize, boolean restoring) {
+        super(directory, restoring);
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Размер сегмента должен быть положительным");
+        }
+        this.segmentSize = segmentSize;
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new ManagerSaveException("Не удалось создать каталог " + directory, null);
+        }
+        // Новая доска: сегменты прежней доски в том же каталоге иначе вернулись бы при загрузке
+        if (!restoring) {
+            for (File segmentFile : segmentFiles()) {
+                deleteSegment(parseSegment(segmentFile.getName()));
+            }
+        }
+    }
+
+    public static SegmentedTaskManager loadFromFile(File directory) {
+        return loadFromFile(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static SegmentedTaskManager loadFromFile(File directory, int segmentSize) {
+        if (!directory.isDirectory()) {
+            throw new RuntimeException("Ошибка при загрузке: каталог не найден " + directory.getName());
+        }
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, segmentSize, true);
+        manager.load();
+        return manager;
+    }
+
+    // Каждый сегмент читается независимо
+    @Override
+    protected void load() {
+        for (File segmentFile : segmentFiles()) {
+            readSnapshot(segmentFile);
+            segments.add(parseSegment(segmentFile.getName()));
+        }
+        // Сбой посреди каскадного удаления эпика оставляет его подзадачи в своих сегментах
+        for (Subtask orphan : dropOrphanSubtasks()) {
+            dirty.add(segmentOf(TaskType.SUBTASK, orphan.getId()));
+        }
+        flush();
+        relinkEpics();
+        restoreHistory();
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        Epic epic = epics.get(id);
+        if (epic != null) {
+            // Подзадачи удаляются каскадно — их сегменты тоже меняются
+            epic.forEachSubtaskId(subtaskId -> dirty.add(segmentOf(TaskType.SUBTASK, subtaskId)));
+        }
+        super.deleteEpic(id);
+    }
+
+    @Override
+    protected void onSaved(Task task) {
+        dirty.add(segmentOf(task.getTaskType(), task.getId()));
+        flush();
+    }
+
+    @Override
+    protected void onDeleted(TaskType type, int id) {
+        dirty.add(segmentOf(type, id));
+        flush();
+    }
+
+    @Override
+    protected void onCleared(TaskType type) {
+        for (Segment segment : segments) {
+            if (segment.type() == type || (type == TaskType.EPIC && segment.type() == TaskType.SUBTASK)) {
+                dirty.add(segment);
+            }
+        }
+        flush();
+    }
+
+    // Полная перезапись всех сегментов (saveToFile)
+    @Override
+    protected void save() {
+        Map<Segment, Map<Integer, Task>> content = new HashMap<>();
+        for (IntHashMap<? extends Task> storage : List.of(epics, tasks, subtasks)) {
+            for (Task task : storage.values()) {
+                content.computeIfAbsent(segmentOf(task.getTaskType(), task.getId()), key -> new TreeMap<>())
+                        .put(task.getId(), task);
+            }
+        }
+        for (Segment segment : new HashSet<>(segments)) {
+            if (!content.containsKey(segment)) {
+                deleteSegment(segment);
+            }
+        }
+        for (Map.Entry<Segment, Map<Integer, Task>> entry : content.entrySet()) {
+            writeSegment(entry.getKey(), entry.getValue().values());
+        }
+        dirty.clear();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    private void flush() {
+        for (Segment segment : dirty) {
+            SortedIntHashMap<? extends Task> storage = storageOf(segment.type());
+            List<Task> content = new ArrayList<>();
+            // Перебираются только id диапазона сегмента, а не вся доска
+            int from = segment.index() * segmentSize;
+            for (Task task : storage.valuesAfter(from - 1)) {
+                if (task.getId() >= from + segmentSize) break;
+                content.add(task);
+            }
+            if (content.isEmpty()) {
+                deleteSegment(segment);
+            } else {
+                writeSegment(segment, content);
+            }
+        }
+        dirty.clear();
+    }
+
+    private SortedIntHashMap<? extends Task> storageOf(TaskType type) {
+        switch (type) {
+            case TASK:
+                return tasks;
+            case EPIC:
+                return epics;
+            case SUBTASK:
+                return subtasks;
+            default:
+                throw new IllegalStateException("Неизвестный тип задачи: " + type);
+        }
+    }
+
+    private Segment segmentOf(TaskType type, int id) {
+        return new Segment(type, id / segmentSize);
+    }
+
+    private List<File> segmentFiles() {
+        List<File> result = new ArrayList<>();
+        File[] files = file.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files != null) {
+            for (File segmentFile : files) {
+                if (parseSegment(segmentFile.getName()) != null) {
+                    result.add(segmentFile);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Segment parseSegment(String name) {
+        String base = name.substring(0, name.length() - EXTENSION.length());
+        int dash = base.lastIndexOf('-');
+        if (dash < 0) return null;
+        try {
+            TaskType type = TaskType.valueOf(base.substring(0, dash).toUpperCase());
+            return new Segment(type, Integer.parseInt(base.substring(dash + 1)));
+        } catch (IllegalArgumentException e) {
+            return null; // посторонний файл в каталоге
+        }
+    }
+
+    private void writeSegment(Segment segment, Iterable<? extends Task> content) {
+        File target = new File(file, segment.fileName());
+        File temp = new File(file, segment.fileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp, StandardCharsets.UTF_8))) {
+                CsvTaskWriter csv = new CsvTaskWriter(writer);
+                csv.writeHeader();
+                for (Task task : content) {
+                    csv.write(task);
+                }
+            }
+            Files.move(temp.toPath(), target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segments.add(segment);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения сегмента " + segment.fileName(), e);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        try {
+            Files.deleteIfExists(new File(file, segment.fileName()).toPath());
+            segments.remove(segment);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка удаления сегмента " + segment.fileName(), e);
+        }
+    }
+}
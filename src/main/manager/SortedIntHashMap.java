@@ -0,0 +1,142 @@
+package main.manager;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// IntHashMap, который перебирает значения по возрастанию ключа и читает их с любого ключа.
+// Порядок хранится отдельным отсортированным массивом ключей: новые id больше прежних,
+// поэтому добавление — запись в конец. Удалённые ключи остаются в массиве и пропускаются
+// при переборе, пока их не станет больше живых — тогда массив уплотняется.
+public class SortedIntHashMap<V> extends IntHashMap<V> {
+    private static final int MIN_COMPACT = 32;
+
+    private int[] order = new int[16];
+    private int orderSize;
+    private int removed;
+
+    @Override
+    public V put(int key, V value) {
+        V old = super.put(key, value);
+        if (old == null) {
+            addKey(key);
+        }
+        return old;
+    }
+
+    @Override
+    public V remove(int key) {
+        V old = super.remove(key);
+        if (old != null && ++removed > MIN_COMPACT && removed > size()) {
+            compact();
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        order = new int[16];
+        orderSize = 0;
+        removed = 0;
+    }
+
+    // Значения по возрастанию ключа
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new OrderIterator(0);
+            }
+
+            @Override
+            public int size() {
+                return SortedIntHashMap.this.size();
+            }
+        };
+    }
+
+    // Значения с ключами строго больше afterKey, по возрастанию ключа
+    public Iterable<V> valuesAfter(int afterKey) {
+        return () -> {
+            int position = Arrays.binarySearch(order, 0, orderSize, afterKey);
+            return new OrderIterator(position >= 0 ? position + 1 : -position - 1);
+        };
+    }
+
+    private void addKey(int key) {
+        if (orderSize == 0 || key > order[orderSize - 1]) {
+            ensureOrderCapacity();
+            order[orderSize++] = key;
+            return;
+        }
+        int position = Arrays.binarySearch(order, 0, orderSize, key);
+        if (position >= 0) {
+            removed--; // ключ удаляли и добавили снова — он уже на своём месте
+            return;
+        }
+        int insertAt = -position - 1;
+        ensureOrderCapacity();
+        System.arraycopy(order, insertAt, order, insertAt + 1, orderSize - insertAt);
+        order[insertAt] = key;
+        orderSize++;
+    }
+
+    private void ensureOrderCapacity() {
+        if (orderSize == order.length) {
+            order = Arrays.copyOf(order, orderSize * 2);
+        }
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < orderSize; i++) {
+            if (containsKey(order[i])) {
+                order[live++] = order[i];
+            }
+        }
+        orderSize = live;
+        removed = 0;
+        modCount++;
+    }
+
+    private class OrderIterator implements Iterator<V> {
+        private final int expectedModCount = modCount;
+        private int position;
+        private V next;
+
+        OrderIterator(int position) {
+            this.position = position;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && position < orderSize) {
+                next = get(order[position++]);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public V next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            V value = next;
+            advance();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package main.manager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Пул одинаковых строк менеджера: равные имена и описания хранятся одним экземпляром.
+// Пул ограничен последними DEFAULT_CAPACITY строками (LRU): часто повторяющиеся строки в нём остаются,
+// а уникальные вытесняются и не тратят память на запись пула, как это было бы с String.intern
+class StringPool {
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final Map<String, String> pool;
+
+    StringPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    StringPool(int capacity) {
+        this.pool = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = pool.putIfAbsent(value, value);
+        return canonical == null ? value : canonical;
+    }
+}
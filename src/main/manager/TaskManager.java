@@ -3,8 +3,10 @@ import main.models.Task;
 import main.models.Epic;
 import main.models.Subtask;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 public interface TaskManager {
     ArrayList<Task> getAllTasks();
@@ -33,6 +35,9 @@ public interface TaskManager {
 
     ArrayList<Subtask> getAllSubtasks();
 
+    // Подзадачи эпика; для несуществующего эпика — пустой список
+    List<Subtask> getEpicSubtasks(int epicId);
+
     Subtask getSubtask(int id);
 
     void deleteAllSubtasks();
@@ -45,5 +50,42 @@ public interface TaskManager {
 
     List<Task> getPrioritizedTasks();
 
+    // Постраничное чтение в порядке id: не больше limit элементов с id больше afterId
+    List<Task> getTasks(int afterId, int limit);
+
+    List<Epic> getEpics(int afterId, int limit);
+
+    List<Subtask> getSubtasks(int afterId, int limit);
+
+    // Страница списка по приоритету после элемента (afterStartTime, afterId):
+    // сначала задачи со временем по (startTime, id), затем задачи без времени по id.
+    // afterStartTime == null и afterId > 0 — позиция среди задач без времени; afterId == 0 — с начала
+    List<Task> getPrioritizedTasks(LocalDateTime afterStartTime, int afterId, int limit);
+
+    // Задачи со временем, пересекающие окно [from, to] (границы включительно), в порядке приоритета
+    List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to);
+
+    // Страница окна [from, to]: не больше limit задач после (afterStartTime, afterId) в порядке приоритета.
+    // afterStartTime == null и afterId == 0 — с начала окна; курсор задачи без времени даёт пустую страницу
+    List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to,
+                                          LocalDateTime afterStartTime, int afterId, int limit);
+
     List<Task> getHistory();
+
+    // Последние просмотры, от новых к старым: не больше limit записей после offset самых новых
+    List<Task> getHistory(int offset, int limit);
+
+    // До k самых запрашиваемых через getTask/getEpic/getSubtask задач, от самой частой; частота приблизительная
+    List<Task> getHotTasks(int k);
+
+    // Приблизительное число запросов задачи через getTask/getEpic/getSubtask (с учётом угасания)
+    int getAccessFrequency(int id);
+
+    // Номер изменения: растёт при каждом создании, обновлении и удалении
+    long getVersion();
+
+    // Слушатель получает id каждой изменённой задачи, в том числе эпика при изменении его подзадач
+    void addChangeListener(IntConsumer listener);
+
+    void removeChangeListener(IntConsumer listener);
 }
@@ -0,0 +1,293 @@
+package main.manager;
+
+import main.enums.FsyncPolicy;
+import main.enums.TaskType;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Отложенная запись (write-behind): изменения не пишутся на диск сразу,
+// а серии изменений сливаются в одну запись файла — не позже maxDelay после первого
+// изменения или сразу, когда накопилось maxBatch изменений.
+// flush() — барьер: возвращается, когда все изменения записаны (и синхронизированы по fsyncPolicy).
+// Ошибка фоновой записи выбрасывается при следующем изменении или flush().
+public class WriteBehindTaskManager extends FileBackedTaskManager implements AutoCloseable {
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(50);
+    public static final int DEFAULT_MAX_BATCH = 1000;
+
+    private final Duration maxDelay;
+    private final int maxBatch;
+    private final FsyncPolicy fsyncPolicy;
+    private final ScheduledExecutorService writer;
+    private final Object ioLock = new Object(); // порядок записей на диск
+    private int pending; // под монитором this
+    private boolean flushScheduled; // под монитором this
+    private boolean batchQueued; // под монитором this
+    private long flushCount;
+    private volatile RuntimeException failure;
+
+    public WriteBehindTaskManager(File file) {
+        this(file, DEFAULT_MAX_DELAY, DEFAULT_MAX_BATCH, FsyncPolicy.BATCH);
+    }
+
+    public WriteBehindTaskManager(File file, Duration maxDelay, int maxBatch, FsyncPolicy fsyncPolicy) {
+        this(file, maxDelay, maxBatch, fsyncPolicy, false);
+    }
+
+    WriteBehindTaskManager(File file, Duration maxDelay, int maxBatch, FsyncPolicy fsyncPolicy, boolean restoring) {
+        super(file, restoring);
+        this.maxDelay = maxDelay;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.fsyncPolicy = fsyncPolicy;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kanban-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static WriteBehindTaskManager loadFromFile(File file) {
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file, DEFAULT_MAX_DELAY, DEFAULT_MAX_BATCH,
+                FsyncPolicy.BATCH, true);
+        manager.loadCsv();
+        return manager;
+    }
+
+    // Изменения выполняются под монитором, чтобы фоновая запись видела согласованное состояние
+    private <T> T mutate(Supplier<T> action) {
+        T result;
+        synchronized (this) {
+            result = action.get();
+        }
+        afterMutation();
+        return result;
+    }
+
+    private void mutate(Runnable action) {
+        synchronized (this) {
+            action.run();
+        }
+        afterMutation();
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        return mutate(() -> super.createTask(task));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        return mutate(() -> super.createEpic(epic));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        return mutate(() -> super.createSubtask(subtask));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        mutate(() -> super.updateTask(task));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        mutate(() -> super.updateEpic(epic));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        mutate(() -> super.updateSubtask(subtask));
+    }
+
+    @Override
+    public void deleteTask(int id) {
+        mutate(() -> super.deleteTask(id));
+    }
+
+    @Override
+    public void deleteEpic(int id) {
+        mutate(() -> super.deleteEpic(id));
+    }
+
+    @Override
+    public void deleteSubtask(int id) {
+        mutate(() -> super.deleteSubtask(id));
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        mutate(super::deleteAllTasks);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        mutate(super::deleteAllEpics);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        mutate(super::deleteAllSubtasks);
+    }
+
+    @Override
+    protected void onSaved(Task task) {
+        pending++;
+    }
+
+    @Override
+    protected void onDeleted(TaskType type, int id) {
+        pending++;
+    }
+
+    @Override
+    protected void onCleared(TaskType type) {
+        pending++;
+    }
+
+    // saveToFile() записывает состояние синхронно
+    @Override
+    protected void save() {
+        synchronized (this) {
+            pending++;
+        }
+        flush();
+    }
+
+    private void afterMutation() {
+        rethrowFailure();
+        if (fsyncPolicy == FsyncPolicy.EACH) {
+            flush();
+            return;
+        }
+
+        synchronized (this) {
+            if (pending >= maxBatch && !batchQueued) {
+                // Пачка набрана — записываем, не дожидаясь таймера
+                flushScheduled = true;
+                batchQueued = true;
+                writer.execute(this::backgroundFlush);
+            } else if (pending > 0 && !flushScheduled) {
+                flushScheduled = true;
+                writer.schedule(this::backgroundFlush, maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void backgroundFlush() {
+        try {
+            writePending();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+
+    // Барьер долговечности: все изменения, сделанные до вызова, оказываются на диске
+    public void flush() {
+        rethrowFailure();
+        writePending();
+    }
+
+    public synchronized int getPendingChanges() {
+        return pending;
+    }
+
+    // Сколько раз файл был фактически записан
+    public long getFlushCount() {
+        synchronized (ioLock) {
+            return flushCount;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+            flushHistory();
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private void writePending() {
+        synchronized (ioLock) {
+            String content;
+            int written;
+            synchronized (this) {
+                flushScheduled = false;
+                batchQueued = false;
+                if (pending == 0) {
+                    return;
+                }
+                content = render();
+                written = pending;
+            }
+            write(content);
+            // Счётчик уменьшается только после успешной записи: при ошибке пачка остаётся несохранённой,
+            // и следующий flush() попробует записать её снова
+            synchronized (this) {
+                pending -= written;
+            }
+            flushCount++;
+        }
+    }
+
+    private String render() {
+        StringWriter buffer = new StringWriter();
+        try (BufferedWriter csv = new BufferedWriter(buffer)) {
+            writeCsv(csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+
+    // Новый снимок пишется во временный файл и атомарно заменяет старый
+    private void write(String content) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (fsyncPolicy != FsyncPolicy.NONE) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения в файл", e);
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения в файл", e);
+        }
+    }
+
+    private void rethrowFailure() {
+        RuntimeException error = failure;
+        if (error != null) {
+            failure = null;
+            throw error;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package main.models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Подзадача для компактного режима InMemoryTaskManager — устроена так же, как CompactTask.
+// copy() возвращает обычную Subtask
+public class CompactSubtask extends Subtask {
+    private int startMinute;
+    private int durationMinutes;
+
+    public CompactSubtask(Subtask source) {
+        super(source.getName(), source.getDescription(), source.getId(), source.getStatus(),
+                source.getEpicId(), null, null);
+        this.priority = source.getPriority();
+        this.startMinute = CompactTime.toMinute(source.getStartTime());
+        this.durationMinutes = CompactTime.toMinutes(source.getDuration());
+    }
+
+    @Override
+    public LocalDateTime getStartTime() {
+        return CompactTime.toDateTime(startMinute);
+    }
+
+    @Override
+    public Duration getDuration() {
+        return CompactTime.toDuration(durationMinutes);
+    }
+
+    @Override
+    public LocalDateTime getEndTime() {
+        return hasStartTime() ? CompactTime.toDateTime((long) startMinute + durationMinutes) : null;
+    }
+
+    @Override
+    public boolean hasStartTime() {
+        return startMinute != CompactTime.NO_TIME;
+    }
+
+    @Override
+    public boolean hasEndTime() {
+        return hasStartTime();
+    }
+
+    @Override
+    public long getStartSecond() {
+        return CompactTime.toSecond(startMinute);
+    }
+
+    @Override
+    public int getStartNano() {
+        return 0;
+    }
+
+    @Override
+    public long getEndSecond() {
+        return CompactTime.toSecond((long) startMinute + durationMinutes);
+    }
+
+    @Override
+    public int getEndNano() {
+        return 0;
+    }
+
+    @Override
+    public void setStartTime(LocalDateTime startTime) {
+        this.startMinute = CompactTime.toMinute(startTime);
+    }
+
+    @Override
+    public void setDuration(Duration duration) {
+        this.durationMinutes = CompactTime.toMinutes(duration);
+    }
+}
@@ -0,0 +1,81 @@
+package main.models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Задача для компактного режима InMemoryTaskManager: начало и длительность — минуты в полях int,
+// без объектов LocalDateTime и Duration. Объекты времени создаются только геттерами — для ответов
+// и записи в файл; сортировка и проверка пересечений читают числа через getStartSecond/getEndSecond.
+// Класс наследует поля Task: унаследованные startTime и duration не используются (null и общий Duration.ZERO),
+// а статус и приоритет хранятся в унаследованных полях-ссылках.
+// copy() возвращает обычную Task
+public class CompactTask extends Task {
+    private int startMinute;
+    private int durationMinutes;
+
+    public CompactTask(Task source) {
+        super(source.getName(), source.getDescription(), source.getId(), source.getStatus(), null, null);
+        this.priority = source.getPriority();
+        this.startMinute = CompactTime.toMinute(source.getStartTime());
+        this.durationMinutes = CompactTime.toMinutes(source.getDuration());
+    }
+
+    public static boolean fits(Task task) {
+        return CompactTime.fits(task.getStartTime(), task.getDuration());
+    }
+
+    @Override
+    public LocalDateTime getStartTime() {
+        return CompactTime.toDateTime(startMinute);
+    }
+
+    @Override
+    public Duration getDuration() {
+        return CompactTime.toDuration(durationMinutes);
+    }
+
+    @Override
+    public LocalDateTime getEndTime() {
+        return hasStartTime() ? CompactTime.toDateTime((long) startMinute + durationMinutes) : null;
+    }
+
+    @Override
+    public boolean hasStartTime() {
+        return startMinute != CompactTime.NO_TIME;
+    }
+
+    @Override
+    public boolean hasEndTime() {
+        return hasStartTime();
+    }
+
+    @Override
+    public long getStartSecond() {
+        return CompactTime.toSecond(startMinute);
+    }
+
+    @Override
+    public int getStartNano() {
+        return 0;
+    }
+
+    @Override
+    public long getEndSecond() {
+        return CompactTime.toSecond((long) startMinute + durationMinutes);
+    }
+
+    @Override
+    public int getEndNano() {
+        return 0;
+    }
+
+    @Override
+    public void setStartTime(LocalDateTime startTime) {
+        this.startMinute = CompactTime.toMinute(startTime);
+    }
+
+    @Override
+    public void setDuration(Duration duration) {
+        this.durationMinutes = CompactTime.toMinutes(duration);
+    }
+}
@@ -0,0 +1,69 @@
+package main.models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Время компактных задач: минуты от 1970-01-01T00:00 и длительность в минутах, в int —
+// это примерно ±4000 лет от 1970 года и длительность до ~4000 лет
+final class CompactTime {
+    static final int NO_TIME = Integer.MIN_VALUE;
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private CompactTime() {
+    }
+
+    // Задачу можно хранить компактно, только если время и длительность — целые минуты в пределах int
+    static boolean fits(LocalDateTime startTime, Duration duration) {
+        return (startTime == null || fitsStart(startTime)) && (duration == null || fitsDuration(duration));
+    }
+
+    static int toMinute(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        require(fitsStart(time), time);
+        return (int) (time.toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_MINUTE);
+    }
+
+    static int toMinutes(Duration duration) {
+        if (duration == null) {
+            return 0;
+        }
+        require(fitsDuration(duration), duration);
+        return (int) (duration.getSeconds() / SECONDS_PER_MINUTE);
+    }
+
+    static LocalDateTime toDateTime(long minute) {
+        return minute == NO_TIME ? null : LocalDateTime.ofEpochSecond(minute * SECONDS_PER_MINUTE, 0, ZoneOffset.UTC);
+    }
+
+    static Duration toDuration(int minutes) {
+        return minutes == 0 ? Duration.ZERO : Duration.ofMinutes(minutes);
+    }
+
+    static long toSecond(long minute) {
+        return minute * SECONDS_PER_MINUTE;
+    }
+
+    private static boolean fitsStart(LocalDateTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            return false;
+        }
+        long minute = time.toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_MINUTE;
+        return minute > NO_TIME && minute <= Integer.MAX_VALUE;
+    }
+
+    private static boolean fitsDuration(Duration duration) {
+        return duration.getNano() == 0 && duration.getSeconds() % SECONDS_PER_MINUTE == 0
+                && duration.getSeconds() / SECONDS_PER_MINUTE >= 0
+                && duration.getSeconds() / SECONDS_PER_MINUTE <= Integer.MAX_VALUE;
+    }
+
+    private static void require(boolean fits, Object value) {
+        if (!fits) {
+            throw new IllegalArgumentException("Компактная задача хранит время целыми минутами в пределах int: "
+                    + value);
+        }
+    }
+}
@@ -2,70 +2,198 @@ package main.models;
 
 import main.enums.Status;
 import main.enums.TaskType;
+import main.manager.IntHashMap;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 public class Epic extends Task {
-    private final List<Integer> subtaskIds = new ArrayList<>();
+    private SortedIntSet subtaskIds = new SortedIntSet();
+    // Агрегаты по подзадачам: статус и время эпика выводятся из них без перебора подзадач
+    private transient Aggregates aggregates;
+
+    // Вклад одной подзадачи в агрегаты (снимок на момент добавления); время — в секундах и наносекундах,
+    // чтобы агрегаты не держали объектов времени каждой подзадачи
+    private static class Contribution {
+        final int id;
+        final Status status;
+        final boolean timed;
+        final long startSecond;
+        final int startNano;
+        final long endSecond;
+        final int endNano;
+
+        Contribution(Subtask subtask) {
+            this.id = subtask.getId();
+            this.status = subtask.getStatus() == null ? Status.NEW : subtask.getStatus();
+            this.timed = subtask.hasEndTime();
+            this.startSecond = timed ? subtask.getStartSecond() : 0;
+            this.startNano = timed ? subtask.getStartNano() : 0;
+            this.endSecond = timed ? subtask.getEndSecond() : 0;
+            this.endNano = timed ? subtask.getEndNano() : 0;
+        }
+    }
+
+    private static final Comparator<Contribution> BY_START = Comparator.<Contribution>comparingLong(c -> c.startSecond)
+            .thenComparingInt(c -> c.startNano)
+            .thenComparingInt(c -> c.id);
+    private static final Comparator<Contribution> BY_END = Comparator.<Contribution>comparingLong(c -> c.endSecond)
+            .thenComparingInt(c -> c.endNano)
+            .thenComparingInt(c -> c.id);
+
+    private static class Aggregates {
+        final IntHashMap<Contribution> contributions = new IntHashMap<>();
+        final int[] statusCounts = new int[Status.values().length];
+        // Подзадачи с временем, упорядоченные по началу и по окончанию: min/max за O(log k)
+        final TreeSet<Contribution> starts = new TreeSet<>(BY_START);
+        final TreeSet<Contribution> ends = new TreeSet<>(BY_END);
+        long totalSeconds;
+        long totalNanos;
+
+        void add(Contribution contribution) {
+            contributions.put(contribution.id, contribution);
+            statusCounts[contribution.status.ordinal()]++;
+            if (contribution.timed) {
+                starts.add(contribution);
+                ends.add(contribution);
+                totalSeconds += contribution.endSecond - contribution.startSecond;
+                totalNanos += contribution.endNano - contribution.startNano;
+            }
+        }
+
+        void remove(int id) {
+            Contribution contribution = contributions.remove(id);
+            if (contribution == null) {
+                return;
+            }
+            statusCounts[contribution.status.ordinal()]--;
+            if (contribution.timed) {
+                starts.remove(contribution);
+                ends.remove(contribution);
+                totalSeconds -= contribution.endSecond - contribution.startSecond;
+                totalNanos -= contribution.endNano - contribution.startNano;
+            }
+        }
+
+        void clear() {
+            contributions.clear();
+            Arrays.fill(statusCounts, 0);
+            starts.clear();
+            ends.clear();
+            totalSeconds = 0;
+            totalNanos = 0;
+        }
+    }
 
     public Epic(String name, String description, int id, Status status) {
         super(name, description, id, status, null, Duration.ZERO);
     }
 
-    // Возвращаем неизменяемую копию списка
-    public List<Integer> getSubtaskIds() {
-        return List.copyOf(subtaskIds);
+    // Эпики, созданные Gson, не проходят через конструктор — агрегаты создаются лениво
+    private Aggregates aggregates() {
+        if (aggregates == null) {
+            aggregates = new Aggregates();
+        }
+        return aggregates;
     }
 
-    public void addSubtask(int id) {
-        if (!subtaskIds.contains(id)) {
-            subtaskIds.add(id);
+    // Эпик из JSON без поля subtaskIds получает пустое множество при первом обращении
+    private SortedIntSet ids() {
+        if (subtaskIds == null) {
+            subtaskIds = new SortedIntSet();
         }
+        return subtaskIds;
     }
 
-    public void removeSubtask(int id) {
-        subtaskIds.remove((Integer) id);
+    // Представление только для чтения, без копирования
+    public List<Integer> getSubtaskIds() {
+        return ids().asList();
     }
 
-    public void recalcTime(List<Subtask> subtasks) {
-        if (subtasks == null || subtasks.isEmpty()) {
-            resetTime();
-            return;
-        }
+    public void forEachSubtaskId(IntConsumer action) {
+        ids().forEach(action);
+    }
 
-        LocalDateTime earliestStart = null;
-        LocalDateTime latestEnd = null;
-        Duration totalDuration = Duration.ZERO;
-        int validTasksCount = 0;
+    public IntStream subtaskIdStream() {
+        return ids().stream();
+    }
 
-        for (Subtask subtask : subtasks) {
-            if (subtask == null || subtask.getStartTime() == null || subtask.getDuration() == null) {
-                continue;
-            }
+    public int getSubtaskCount() {
+        return ids().size();
+    }
 
-            validTasksCount++;
-            LocalDateTime subtaskStart = subtask.getStartTime();
-            LocalDateTime subtaskEnd = subtask.getEndTime();
+    public boolean hasSubtask(int id) {
+        return ids().contains(id);
+    }
 
-            if (earliestStart == null || subtaskStart.isBefore(earliestStart)) {
-                earliestStart = subtaskStart;
-            }
+    // Добавляет подзадачу или заменяет её прежний вклад, статус и время пересчитываются за O(log k)
+    public void addSubtask(Subtask subtask) {
+        int id = subtask.getId();
+        ids().add(id);
+        Aggregates stats = aggregates();
+        stats.remove(id);
+        stats.add(new Contribution(subtask));
+        recalcStatus();
+        recalcTime();
+    }
 
-            if (latestEnd == null || subtaskEnd.isAfter(latestEnd)) {
-                latestEnd = subtaskEnd;
-            }
-        }
+    public void removeSubtask(int id) {
+        ids().remove(id);
+        aggregates().remove(id);
+        recalcStatus();
+        recalcTime();
+    }
+
+    public void clearSubtasks() {
+        ids().clear();
+        aggregates().clear();
+        recalcStatus();
+        recalcTime();
+    }
+
+    public void recalcStatus() {
+        int[] counts = aggregates().statusCounts;
+        int newCount = counts[Status.NEW.ordinal()];
+        int inProgressCount = counts[Status.IN_PROGRESS.ordinal()];
+        int doneCount = counts[Status.DONE.ordinal()];
 
-        if (validTasksCount > 0) {
-            this.startTime = earliestStart;
-            this.duration = Duration.between(earliestStart, latestEnd);
+        if (inProgressCount > 0 || (newCount > 0 && doneCount > 0)) {
+            this.status = Status.IN_PROGRESS;
+        } else if (doneCount > 0) {
+            this.status = Status.DONE;
         } else {
+            this.status = Status.NEW;
+        }
+    }
+
+    public void recalcTime() {
+        Aggregates stats = aggregates();
+        if (stats.starts.isEmpty()) {
             resetTime();
+            return;
+        }
+        Contribution earliest = stats.starts.first();
+        Contribution latest = stats.ends.last();
+        // Объект начала создаётся заново, только если начало эпика сдвинулось
+        if (!hasStartTime() || getStartSecond() != earliest.startSecond || getStartNano() != earliest.startNano) {
+            this.startTime = LocalDateTime.ofEpochSecond(earliest.startSecond, earliest.startNano, ZoneOffset.UTC);
         }
+        this.duration = Duration.ofSeconds(latest.endSecond - earliest.startSecond,
+                latest.endNano - earliest.startNano);
+    }
+
+    // Суммарная длительность подзадач (без учёта промежутков между ними)
+    public Duration getSubtasksDuration() {
+        Aggregates stats = aggregates();
+        return Duration.ofSeconds(stats.totalSeconds, stats.totalNanos);
     }
 
     private void resetTime() {
@@ -73,12 +201,15 @@ public class Epic extends Task {
         this.duration = Duration.ZERO;
     }
 
+    // Копия без агрегатов: статус, время и подзадачи — как у эпика на момент копирования
     @Override
-    public LocalDateTime getEndTime() {
-        if (startTime == null || duration == null) {
-            return null;
-        }
-        return startTime.plus(duration);
+    public Epic copy() {
+        Epic copy = new Epic(name, description, id, status);
+        copy.priority = priority;
+        copy.startTime = startTime;
+        copy.duration = duration;
+        copy.subtaskIds = ids().copy();
+        return copy;
     }
 
     @Override
@@ -92,12 +223,12 @@ public class Epic extends Task {
         if (o == null || getClass() != o.getClass()) return false;
         if (!super.equals(o)) return false;
         Epic epic = (Epic) o;
-        return subtaskIds.equals(epic.subtaskIds);
+        return ids().equals(epic.ids());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), subtaskIds);
+        return Objects.hash(super.hashCode(), ids());
     }
 
 
@@ -109,7 +240,7 @@ public class Epic extends Task {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", status=" + status +
-                ", subtaskIds=" + subtaskIds +
+                ", subtaskIds=" + ids() +
                 ", startTime=" + startTime +
                 ", duration=" + duration +
                 ", endTime=" + getEndTime() +
@@ -0,0 +1,147 @@
+package main.models;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// Множество int в отсортированном массиве: без упаковки в Integer,
+// contains и remove — двоичный поиск, добавление возрастающих id (обычный случай) — в конец массива
+public class SortedIntSet {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values = EMPTY;
+    private int size;
+
+    public boolean add(int value) {
+        int index = indexOf(value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, size * 2));
+        }
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+
+    public SortedIntSet copy() {
+        SortedIntSet copy = new SortedIntSet();
+        copy.values = toArray();
+        copy.size = size;
+        return copy;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    // Представление только для чтения, без копирования
+    public List<Integer> asList() {
+        return new ListView();
+    }
+
+    private int indexOf(int value) {
+        // Быстрый путь для добавления нового наибольшего id
+        if (size == 0 || value > values[size - 1]) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(values, 0, size, value);
+    }
+
+    private class ListView extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(int index) {
+            return SortedIntSet.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer value && SortedIntSet.this.contains(value);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (!(o instanceof Integer value)) {
+                return -1;
+            }
+            int index = SortedIntSet.this.indexOf(value);
+            return index >= 0 ? index : -1;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SortedIntSet other = (SortedIntSet) o;
+        return Arrays.equals(values, 0, size, other.values, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + values[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -20,6 +20,13 @@ public class Subtask extends Task {
         return epicId;
     }
 
+    @Override
+    public Subtask copy() {
+        Subtask copy = new Subtask(name, description, id, status, epicId, getStartTime(), getDuration());
+        copy.priority = priority;
+        return copy;
+    }
+
     @Override
     public TaskType getTaskType() {
         return TaskType.SUBTASK;
@@ -37,9 +44,8 @@ public class Subtask extends Task {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Subtask subtask)) return false;
         if (!super.equals(o)) return false;
-        Subtask subtask = (Subtask) o;
         return epicId == subtask.epicId;
     }
 
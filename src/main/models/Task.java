@@ -6,9 +6,12 @@ import main.enums.TaskType;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 public class Task {
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+
     protected int id;
     protected String name;
     protected String description;
@@ -59,7 +62,43 @@ public class Task {
 
     // Вычисляемый endTime
     public LocalDateTime getEndTime() {
-        return startTime != null ? startTime.plus(duration) : null;
+        if (startTime == null || duration == null) {
+            return null;
+        }
+        return startTime.plus(duration);
+    }
+
+    // Начало и окончание в секундах и наносекундах от 1970-01-01T00:00 — для индексов и сортировки
+    // без создания объектов времени. get*Second/get*Nano вызываются только при hasStartTime()/hasEndTime()
+    public boolean hasStartTime() {
+        return startTime != null;
+    }
+
+    public boolean hasEndTime() {
+        return startTime != null && duration != null;
+    }
+
+    public long getStartSecond() {
+        return startTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public int getStartNano() {
+        return startTime.getNano();
+    }
+
+    public long getEndSecond() {
+        return getStartSecond() + duration.getSeconds() + (startTime.getNano() + duration.getNano()) / NANOS_PER_SECOND;
+    }
+
+    public int getEndNano() {
+        return (startTime.getNano() + duration.getNano()) % NANOS_PER_SECOND;
+    }
+
+    // Снимок для отдачи наружу: дальнейшие изменения в менеджере его не затрагивают
+    public Task copy() {
+        Task copy = new Task(name, description, id, status, getStartTime(), getDuration());
+        copy.priority = priority;
+        return copy;
     }
 
     // Сеттеры
@@ -98,8 +137,8 @@ public class Task {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Task task = (Task) o;
+        // Сравнение по типу, а не по классу: компактная копия равна исходной задаче
+        if (!(o instanceof Task task) || getTaskType() != task.getTaskType()) return false;
         return id == task.id; // Сравниваем только по ID
     }
 
@@ -0,0 +1,101 @@
+import main.enums.Status;
+import main.manager.ArrayHistoryManager;
+import main.manager.HistoryManager;
+import main.manager.InMemoryHistoryManager;
+import main.models.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrayHistoryManagerTest {
+
+    private static Task task(int id) {
+        return new Task("Task " + id, "Desc", id, Status.NEW, null, null);
+    }
+
+    @Test
+    void shouldKeepOrderAndMoveRepeatedViewsToEnd() {
+        HistoryManager history = new ArrayHistoryManager(10);
+        history.add(task(1));
+        history.add(task(2));
+        history.add(task(3));
+        history.add(task(1));
+        history.remove(2);
+
+        assertEquals(List.of(task(3), task(1)), history.getHistory());
+    }
+
+    @Test
+    void shouldMatchInMemoryHistoryUnderRandomOperations() {
+        HistoryManager expected = new InMemoryHistoryManager(50);
+        HistoryManager actual = new ArrayHistoryManager(50);
+        Random random = new Random(21);
+
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(200) + 1;
+            if (random.nextInt(5) == 0) {
+                expected.remove(id);
+                actual.remove(id);
+            } else {
+                expected.add(task(id));
+                actual.add(task(id));
+            }
+            if (i % 1_000 == 0) {
+                assertEquals(expected.getHistory(), actual.getHistory());
+                assertEquals(expected.getHistory(5, 10), actual.getHistory(5, 10));
+            }
+        }
+        assertEquals(expected.getHistory(), actual.getHistory());
+    }
+
+    @Test
+    void shouldStayConsistentUnderConcurrentAdds() throws InterruptedException {
+        ArrayHistoryManager history = new ArrayHistoryManager(100);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 1_000;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    history.add(task(offset + i % 1_000 + 1));
+                    if (i % 500 == 0) {
+                        history.getHistory();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<Task> result = history.getHistory();
+        assertEquals(100, result.size());
+        Set<Integer> ids = new HashSet<>();
+        result.forEach(task -> assertTrue(ids.add(task.getId()), "Задача в истории дважды: " + task.getId()));
+
+        ids.forEach(id -> assertTrue(id >= 1 && id <= threads * 1_000));
+
+        // После параллельной записи история продолжает работать как обычно
+        history.add(task(1));
+        history.remove(result.getFirst().getId());
+        List<Task> after = history.getHistory();
+        assertEquals(task(1), after.getLast());
+        assertFalse(after.contains(result.getFirst()) && result.getFirst().getId() != 1);
+    }
+}
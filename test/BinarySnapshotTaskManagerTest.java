@@ -0,0 +1,130 @@
+import main.enums.Priority;
+import main.enums.Status;
+import main.manager.BinarySnapshotTaskManager;
+import main.manager.FileBackedTaskManager;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotTaskManagerTest extends TaskManagerTest<BinarySnapshotTaskManager> {
+    private File tempFile;
+    private File csvFile;
+
+    @Override
+    protected BinarySnapshotTaskManager createManager() {
+        try {
+            tempFile = File.createTempFile("tasks", ".bin");
+            csvFile = File.createTempFile("tasks", ".csv");
+            return new BinarySnapshotTaskManager(tempFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось создать временный файл", e);
+        }
+    }
+
+    @AfterEach
+    void deleteTempFiles() throws IOException {
+        Files.deleteIfExists(tempFile.toPath());
+        Files.deleteIfExists(csvFile.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.historyFile(tempFile).toPath());
+    }
+
+    @Test
+    void loadShouldRestoreAllFields() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Task task = new Task("Задача", null, 0, Status.IN_PROGRESS,
+                baseTime.plusSeconds(30).plusNanos(5), Duration.ofSeconds(90));
+        task.setPriority(Priority.HIGH);
+        task = manager.createTask(task);
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Subtask first = manager.createSubtask(new Subtask("Sub1", "Desc", 0, Status.DONE,
+                epic.getId(), baseTime.minusDays(1), Duration.ofHours(1)));
+        Subtask second = manager.createSubtask(new Subtask("Sub2", "Desc", 0, Status.NEW,
+                epic.getId(), null, null));
+
+        BinarySnapshotTaskManager loaded = BinarySnapshotTaskManager.loadFromFile(tempFile);
+
+        Task loadedTask = loaded.getTask(task.getId());
+        assertEquals("Задача", loadedTask.getName());
+        assertNull(loadedTask.getDescription());
+        assertEquals(Status.IN_PROGRESS, loadedTask.getStatus());
+        assertEquals(Priority.HIGH, loadedTask.getPriority());
+        assertEquals(task.getStartTime(), loadedTask.getStartTime(), "Секунды и наносекунды не теряются");
+        assertEquals(task.getDuration(), loadedTask.getDuration());
+
+        Epic loadedEpic = loaded.getEpic(epic.getId());
+        assertEquals(List.of(first.getId(), second.getId()), loadedEpic.getSubtaskIds());
+        assertEquals(Status.IN_PROGRESS, loadedEpic.getStatus());
+        assertEquals(first.getStartTime(), loadedEpic.getStartTime());
+        assertEquals(first.getStartTime(), loaded.getSubtask(first.getId()).getStartTime());
+        assertNull(loaded.getSubtask(second.getId()).getStartTime());
+        assertEquals(4, loaded.getPrioritizedTasks().size(), "Задача, эпик и две подзадачи");
+    }
+
+    @Test
+    void binarySnapshotShouldBeSmallerThanCsv() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 100; i++) {
+            manager.createTask(new Task("Task" + i, "Desc", 0, Status.NEW,
+                    baseTime.plusHours(i), Duration.ofMinutes(30)));
+        }
+        manager.exportCsv(csvFile);
+
+        assertTrue(tempFile.length() < csvFile.length() / 2,
+                "Двоичный снимок должен быть заметно меньше CSV");
+    }
+
+    @Test
+    void csvShouldBeImportedAndExported() {
+        FileBackedTaskManager csvManager = new FileBackedTaskManager(csvFile);
+        Epic epic = csvManager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        csvManager.createSubtask(new Subtask("Sub", "Desc", 0, Status.DONE, epic.getId(),
+                LocalDateTime.of(2025, 1, 1, 10, 0), Duration.ofHours(1)));
+
+        BinarySnapshotTaskManager imported = BinarySnapshotTaskManager.importCsv(csvFile, tempFile);
+        assertEquals(Status.DONE, imported.getEpic(epic.getId()).getStatus());
+
+        BinarySnapshotTaskManager loaded = BinarySnapshotTaskManager.loadFromFile(tempFile);
+        assertEquals(1, loaded.getEpic(epic.getId()).getSubtaskIds().size());
+
+        loaded.exportCsv(csvFile);
+        FileBackedTaskManager exported = FileBackedTaskManager.loadFromFile(csvFile);
+        assertEquals(1, exported.getAllSubtasks().size());
+        assertEquals(Status.DONE, exported.getEpic(epic.getId()).getStatus());
+    }
+
+    @Test
+    void loadShouldRejectForeignFile() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name\n");
+
+        assertThrows(RuntimeException.class, () -> BinarySnapshotTaskManager.loadFromFile(tempFile));
+    }
+
+    @Test
+    void loadShouldFailOnMissingFileLikeCsv() throws IOException {
+        Files.delete(tempFile.toPath());
+
+        assertThrows(RuntimeException.class, () -> BinarySnapshotTaskManager.loadFromFile(tempFile));
+        assertThrows(RuntimeException.class, () -> FileBackedTaskManager.loadFromFile(tempFile));
+    }
+
+    @Test
+    void taskWithoutStatusShouldBeSavedAndLoaded() {
+        Task task = manager.createTask(new Task("Без статуса", "Desc", 0, null, null, null));
+
+        BinarySnapshotTaskManager loaded = BinarySnapshotTaskManager.loadFromFile(tempFile);
+
+        assertNull(loaded.getTask(task.getId()).getStatus());
+        assertEquals("Без статуса", loaded.getTask(task.getId()).getName());
+    }
+}
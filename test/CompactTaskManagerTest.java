@@ -0,0 +1,101 @@
+import com.google.gson.Gson;
+import main.enums.Status;
+import main.enums.StorageMode;
+import main.http.HttpTaskServer;
+import main.manager.InMemoryTaskManager;
+import main.manager.Managers;
+import main.models.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Override
+    protected InMemoryTaskManager createManager() {
+        return new InMemoryTaskManager(Managers.getDefaultHistory(), StorageMode.COMPACT_DEDUPLICATED);
+    }
+
+    @Test
+    void wholeMinuteTasksShouldBeStoredCompactly() {
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, BASE_TIME, Duration.ofMinutes(90)));
+
+        Task stored = manager.getTask(task.getId());
+        assertInstanceOf(CompactTask.class, stored);
+        assertEquals(BASE_TIME, stored.getStartTime());
+        assertEquals(Duration.ofMinutes(90), stored.getDuration());
+        assertEquals(BASE_TIME.plusMinutes(90), stored.getEndTime());
+    }
+
+    @Test
+    void subMinuteTimeShouldKeepPlainTask() {
+        LocalDateTime precise = BASE_TIME.plusSeconds(30);
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, precise, Duration.ofSeconds(90)));
+
+        Task stored = manager.getTask(task.getId());
+        assertFalse(stored instanceof CompactTask);
+        assertEquals(precise, stored.getStartTime());
+    }
+
+    @Test
+    void timeOutsideIntMinutesShouldKeepPlainTask() {
+        LocalDateTime farFuture = LocalDateTime.of(9000, 1, 1, 0, 0);
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, farFuture, Duration.ofMinutes(5)));
+
+        Task stored = manager.getTask(task.getId());
+        assertFalse(stored instanceof CompactTask);
+        assertEquals(farFuture.plusMinutes(5), stored.getEndTime());
+    }
+
+    @Test
+    void compactTasksShouldBeCheckedForOverlapAndSorted() {
+        Task later = manager.createTask(new Task("Later", "Desc", 0, Status.NEW,
+                BASE_TIME.plusHours(2), Duration.ofHours(1)));
+        Task earlier = manager.createTask(new Task("Earlier", "Desc", 0, Status.NEW,
+                BASE_TIME, Duration.ofHours(1)));
+
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("Overlap", "Desc", 0,
+                Status.NEW, BASE_TIME.plusMinutes(30), Duration.ofMinutes(10))));
+        assertEquals(List.of(earlier.getId(), later.getId()),
+                manager.getPrioritizedTasks().stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void epicTimeShouldFollowCompactSubtasks() {
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Subtask first = manager.createSubtask(new Subtask("Sub1", "Desc", 0, Status.DONE, epic.getId(),
+                BASE_TIME, Duration.ofMinutes(30)));
+        manager.createSubtask(new Subtask("Sub2", "Desc", 0, Status.DONE, epic.getId(),
+                BASE_TIME.plusHours(1), Duration.ofMinutes(30)));
+
+        assertInstanceOf(CompactSubtask.class, manager.getSubtask(first.getId()));
+        Epic stored = manager.getEpic(epic.getId());
+        assertEquals(BASE_TIME, stored.getStartTime());
+        assertEquals(BASE_TIME.plusMinutes(90), stored.getEndTime());
+        assertEquals(Duration.ofHours(1), stored.getSubtasksDuration());
+        assertEquals(Status.DONE, stored.getStatus());
+    }
+
+    @Test
+    void equalDescriptionsShouldShareOneString() {
+        Task first = manager.createTask(new Task("Task1", new String("Shared"), 0, Status.NEW, null, null));
+        Task second = manager.createTask(new Task("Task2", new String("Shared"), 0, Status.NEW, null, null));
+
+        assertSame(manager.getTask(first.getId()).getDescription(), manager.getTask(second.getId()).getDescription());
+    }
+
+    @Test
+    void copyAndJsonShouldMatchPlainTask() {
+        Task plain = new Task("Task", "Desc", 0, Status.IN_PROGRESS, BASE_TIME, Duration.ofMinutes(45));
+        Task stored = manager.createTask(plain);
+        Gson gson = HttpTaskServer.getGson();
+
+        assertEquals(Task.class, stored.copy().getClass());
+        assertEquals(gson.toJson(plain.copy()), gson.toJson(stored, stored.getClass()));
+    }
+}
@@ -0,0 +1,110 @@
+import main.enums.Status;
+import main.manager.ConcurrentTaskManager;
+import main.models.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+
+    @Override
+    protected ConcurrentTaskManager createManager() {
+        return new ConcurrentTaskManager();
+    }
+
+    @Test
+    void shouldCreateTasksFromManyThreadsWithUniqueIds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Task>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(executor.submit(() -> manager.createTask(
+                    new Task("Task", "Desc", 0, Status.NEW, null, null))));
+        }
+        for (Future<Task> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1000, manager.getAllTasks().size());
+        assertEquals(1000, manager.getAllTasks().stream().map(Task::getId).distinct().count());
+    }
+
+    @Test
+    void returnedEpicShouldNotChangeAfterLaterWrites() {
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Epic read = manager.getEpic(epic.getId());
+
+        manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.DONE, epic.getId(),
+                LocalDateTime.of(2025, 1, 1, 10, 0), Duration.ofMinutes(30)));
+
+        assertEquals(0, read.getSubtaskCount());
+        assertEquals(Status.NEW, read.getStatus());
+        assertNull(read.getStartTime());
+        Epic current = manager.getEpic(epic.getId());
+        assertEquals(1, current.getSubtaskCount());
+        assertEquals(Status.DONE, current.getStatus());
+        assertNotSame(current, manager.getEpic(epic.getId()));
+    }
+
+    @Test
+    void shouldRejectOverlapsAtomicallyUnderContention() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    manager.createTask(new Task("Task", "Desc", 0, Status.NEW, start, Duration.ofHours(1)));
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1, manager.getAllTasks().size());
+        assertEquals(99, rejected.get());
+    }
+
+    @Test
+    void shouldKeepEpicConsistentWithConcurrentReaders() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> {
+                manager.getEpic(epic.getId());
+                manager.getPrioritizedTasks();
+                manager.getHistory();
+            }));
+        }
+        // Подзадачи идут по возрастанию времени: эпик участвует в проверке пересечений
+        for (int i = 0; i < 200; i++) {
+            manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.DONE,
+                    epic.getId(), start.plusHours(i * 2L), Duration.ofMinutes(30)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Epic stored = manager.getEpic(epic.getId());
+        assertEquals(200, stored.getSubtaskIds().size());
+        assertEquals(Status.DONE, stored.getStatus());
+        assertEquals(start, stored.getStartTime());
+    }
+}
@@ -0,0 +1,110 @@
+import main.enums.Priority;
+import main.enums.Status;
+import main.manager.CsvTaskReader;
+import main.manager.CsvTaskWriter;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTaskReaderTest {
+
+    private CsvTaskReader readerOf(String csv) {
+        return new CsvTaskReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Task roundTrip(Task task) throws IOException {
+        StringWriter out = new StringWriter();
+        CsvTaskWriter writer = new CsvTaskWriter(out);
+        writer.writeHeader();
+        writer.write(task);
+
+        CsvTaskReader reader = readerOf(out.toString());
+        reader.skipHeader();
+        Task loaded = reader.next();
+        assertNull(reader.next(), "В файле должна быть одна задача");
+        return loaded;
+    }
+
+    @Test
+    void shouldWriteSameRowsAsPreviousFormat() {
+        Task task = new Task("Task", "Desc", 1, Status.NEW,
+                LocalDateTime.of(2025, 1, 1, 10, 0), Duration.ofMinutes(90));
+        task.setPriority(Priority.HIGH);
+        Subtask subtask = new Subtask("Sub", "Desc", 2, Status.DONE, 3, null, null);
+
+        assertEquals("1,TASK,Task,NEW,Desc,2025-01-01T10:00,PT1H30M,HIGH,", CsvTaskWriter.toCsv(task));
+        assertEquals("2,SUBTASK,Sub,DONE,Desc,,,,3", CsvTaskWriter.toCsv(subtask));
+    }
+
+    @Test
+    void shouldRoundTripCommasQuotesAndNewlines() throws IOException {
+        Task task = new Task("Купить, продать", "Строка 1\nСтрока \"2\"\r\n,", 7, Status.IN_PROGRESS,
+                null, null);
+
+        Task loaded = roundTrip(task);
+
+        assertEquals(task.getName(), loaded.getName());
+        assertEquals(task.getDescription(), loaded.getDescription());
+        assertEquals(Status.IN_PROGRESS, loaded.getStatus());
+    }
+
+    @Test
+    void shouldRoundTripTimesAndDurations() throws IOException {
+        LocalDateTime[] times = {
+                LocalDateTime.of(2025, 1, 1, 10, 0),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 7),
+                LocalDateTime.of(2025, 6, 15, 8, 30, 1, 500_000_000),
+                LocalDateTime.of(2025, 6, 15, 8, 30, 0, 123_456_789),
+                LocalDateTime.of(12025, 6, 15, 8, 30)
+        };
+        Duration[] durations = {Duration.ZERO, Duration.ofMinutes(45), Duration.ofHours(49).plusSeconds(5),
+                Duration.ofMillis(1500), Duration.ofMinutes(-30)};
+
+        for (int i = 0; i < times.length; i++) {
+            Task loaded = roundTrip(new Subtask("Sub", "Desc", 5, Status.NEW, 4, times[i], durations[i]));
+
+            assertEquals(times[i], loaded.getStartTime());
+            assertEquals(durations[i], loaded.getDuration());
+            assertEquals(4, ((Subtask) loaded).getEpicId());
+        }
+    }
+
+    @Test
+    void shouldStopAtBlankLineAndSkipUnknownTypes() {
+        CsvTaskReader reader = readerOf(String.join("\r\n",
+                "id,type,name,status,description,startTime,duration,priority,epicId",
+                "1,EPIC,Epic,NEW,Desc,,,,",
+                "2,NOTE,Note,NEW,Desc,,,,",
+                "3,TASK,Task,DONE,Desc,,,LOW,",
+                "   ",
+                "4,TASK,Task,NEW,Desc,,,,"));
+        reader.skipHeader();
+
+        assertInstanceOf(Epic.class, reader.next());
+        Task task = reader.next();
+        assertEquals(3, task.getId());
+        assertEquals(Priority.LOW, task.getPriority());
+        assertNull(reader.next());
+        assertTrue(reader.stoppedAtBlankLine());
+    }
+
+    @Test
+    void shouldRejectMalformedValues() {
+        CsvTaskReader reader = readerOf("1x,TASK,Task,NEW,Desc,,,,\n");
+
+        assertThrows(NumberFormatException.class, reader::next);
+
+        CsvTaskReader badStatus = readerOf("1,TASK,Task,OPEN,Desc,,,,\n");
+        assertThrows(IllegalArgumentException.class, badStatus::next);
+    }
+}
@@ -1,4 +1,6 @@
+import com.google.gson.Gson;
 import main.enums.Status;
+import main.http.HttpTaskServer;
 import main.models.Epic;
 import main.models.Subtask;
 import main.manager.FileBackedTaskManager;
@@ -9,6 +11,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,4 +65,92 @@ class EpicTest {
                 "Подзадача с ID эпика не должна быть в списке"
         );
     }
+
+    @Test
+    void epicStatusShouldFollowSubtaskAggregates() {
+        Epic epic = new Epic("Epic", "Description", 1, Status.NEW);
+        Subtask sub1 = new Subtask("Sub1", "Desc", 2, Status.NEW, 1, null, null);
+        Subtask sub2 = new Subtask("Sub2", "Desc", 3, Status.DONE, 1, null, null);
+
+        epic.addSubtask(sub1);
+        assertEquals(Status.NEW, epic.getStatus());
+
+        epic.addSubtask(sub2);
+        assertEquals(Status.IN_PROGRESS, epic.getStatus());
+
+        // Повторное добавление заменяет прежний вклад подзадачи
+        epic.addSubtask(new Subtask("Sub1", "Desc", 2, Status.DONE, 1, null, null));
+        assertEquals(Status.DONE, epic.getStatus());
+        assertEquals(2, epic.getSubtaskIds().size());
+
+        epic.clearSubtasks();
+        assertEquals(Status.NEW, epic.getStatus());
+        assertTrue(epic.getSubtaskIds().isEmpty());
+    }
+
+    @Test
+    void epicTimeShouldFollowSubtaskAggregates() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Epic epic = new Epic("Epic", "Description", 1, Status.NEW);
+        Subtask early = new Subtask("Early", "Desc", 2, Status.NEW, 1, baseTime, Duration.ofHours(1));
+        Subtask late = new Subtask("Late", "Desc", 3, Status.NEW, 1, baseTime.plusHours(3), Duration.ofHours(2));
+
+        epic.addSubtask(early);
+        epic.addSubtask(late);
+
+        assertEquals(baseTime, epic.getStartTime());
+        assertEquals(baseTime.plusHours(5), epic.getEndTime());
+        assertEquals(Duration.ofHours(3), epic.getSubtasksDuration());
+
+        epic.removeSubtask(late.getId());
+        assertEquals(baseTime.plusHours(1), epic.getEndTime());
+        assertEquals(Duration.ofHours(1), epic.getSubtasksDuration());
+
+        epic.removeSubtask(early.getId());
+        assertNull(epic.getStartTime());
+        assertEquals(Duration.ZERO, epic.getSubtasksDuration());
+    }
+
+    @Test
+    void subtaskIdsShouldStaySortedWithoutCopies() {
+        Epic epic = new Epic("Epic", "Description", 1, Status.NEW);
+        epic.addSubtask(new Subtask("Sub5", "Desc", 5, Status.NEW, 1, null, null));
+        epic.addSubtask(new Subtask("Sub2", "Desc", 2, Status.NEW, 1, null, null));
+        epic.addSubtask(new Subtask("Sub9", "Desc", 9, Status.NEW, 1, null, null));
+        epic.addSubtask(new Subtask("Sub2", "Desc", 2, Status.DONE, 1, null, null));
+
+        List<Integer> view = epic.getSubtaskIds();
+        assertEquals(List.of(2, 5, 9), view);
+        assertArrayEquals(new int[]{2, 5, 9}, epic.subtaskIdStream().toArray());
+        assertEquals(3, epic.getSubtaskCount());
+        assertTrue(epic.hasSubtask(5));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(7));
+
+        // Представление отражает изменения эпика
+        epic.removeSubtask(5);
+        assertEquals(List.of(2, 9), view);
+        assertFalse(epic.hasSubtask(5));
+
+        List<Integer> visited = new ArrayList<>();
+        epic.forEachSubtaskId(visited::add);
+        assertEquals(List.of(2, 9), visited);
+    }
+
+    @Test
+    void subtaskIdsShouldKeepJsonShape() {
+        Gson gson = HttpTaskServer.getGson();
+        Epic epic = new Epic("Epic", "Description", 1, Status.NEW);
+        epic.addSubtask(new Subtask("Sub2", "Desc", 2, Status.NEW, 1, null, null));
+        epic.addSubtask(new Subtask("Sub3", "Desc", 3, Status.NEW, 1, null, null));
+
+        String json = gson.toJson(epic);
+        assertTrue(json.contains("\"subtaskIds\":[2,3]"), json);
+
+        Epic restored = gson.fromJson(json, Epic.class);
+        assertEquals(List.of(2, 3), restored.getSubtaskIds());
+
+        // Эпик без поля subtaskIds получает пустое множество
+        Epic bare = gson.fromJson("{\"name\":\"E\",\"id\":4}", Epic.class);
+        assertEquals(0, bare.getSubtaskCount());
+    }
 }
@@ -1,15 +1,23 @@
 import main.enums.Status;
 import main.manager.FileBackedTaskManager;
+import main.manager.PersistentHistoryManager;
 import main.models.Epic;
 import main.models.Subtask;
+import main.models.Task;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +37,7 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
     @AfterEach
     void deleteTempFile() throws IOException {
         Files.deleteIfExists(tempFile.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.historyFile(tempFile).toPath());
     }
 
     @Test
@@ -95,4 +104,179 @@ class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
         assertTrue(exception.getMessage().contains("Ошибка загрузки") || exception.getCause() instanceof IOException,
                 "Должно быть выброшено исключение о невозможности загрузки файла");
     }
+
+    @Test
+    void parallelLoad_shouldMatchSequentialLoad() throws IOException {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<String> lines = new ArrayList<>();
+        lines.add("id,type,name,status,description,startTime,duration,priority,epicId");
+        int id = 1;
+        for (int e = 0; e < 200; e++) {
+            int epicId = id++;
+            lines.add(epicId + ",EPIC,Эпик" + e + ",NEW,Desc,,,,");
+            for (int s = 0; s < 50; s++) {
+                String status = s % 3 == 0 ? "DONE" : "NEW";
+                lines.add(id + ",SUBTASK,Sub" + id + "," + status + ",Desc,"
+                        + baseTime.plusMinutes(id * 10L) + ",PT5M,HIGH," + epicId);
+                id++;
+            }
+            lines.add(id + ",TASK,Task" + id + ",IN_PROGRESS,Desc,,,,");
+            id++;
+        }
+        Files.write(tempFile.toPath(), lines); // сотни килобайт — несколько кусков при разборе
+
+        FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(tempFile);
+        FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileParallel(tempFile, new ForkJoinPool(4));
+
+        assertEquals(sequential.getAllTasks().size(), parallel.getAllTasks().size());
+        assertEquals(sequential.getAllSubtasks().size(), parallel.getAllSubtasks().size());
+        assertEquals(sequential.getPrioritizedTasks(), parallel.getPrioritizedTasks());
+        for (Epic epic : sequential.getAllEpics()) {
+            Epic loaded = parallel.getEpic(epic.getId());
+            assertEquals(epic.getStatus(), loaded.getStatus());
+            assertEquals(epic.getStartTime(), loaded.getStartTime());
+            assertEquals(epic.getEndTime(), loaded.getEndTime());
+            assertEquals(epic.getSubtaskIds(), loaded.getSubtaskIds());
+        }
+
+        // Индекс пересечений построен массово и продолжает работать
+        assertThrows(IllegalArgumentException.class, () -> parallel.createTask(new Task("Overlap", "Desc", 0,
+                Status.NEW, baseTime.plusMinutes(20), Duration.ofMinutes(1))));
+        Task created = parallel.createTask(new Task("New", "Desc", 0, Status.NEW, null, null));
+        assertEquals(id, created.getId(), "Нумерация продолжается после максимального id");
+    }
+
+    @Test
+    void loadFromFile_shouldLoadLargeSnapshotInParallel() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("id,type,name,status,description,startTime,duration,priority,epicId");
+        lines.add("1,EPIC,Эпик,NEW,Desc,,,,");
+        long size = 0;
+        int id = 2;
+        while (size < FileBackedTaskManager.PARALLEL_LOAD_BYTES) {
+            String line = id + ",SUBTASK,Sub" + id + ",DONE,Описание подзадачи " + id + ",,,,1";
+            lines.add(line);
+            size += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            id++;
+        }
+        Files.write(tempFile.toPath(), lines);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(id - 2, loaded.getAllSubtasks().size());
+        assertEquals(id - 2, loaded.getEpic(1).getSubtaskIds().size());
+        assertEquals(Status.DONE, loaded.getEpic(1).getStatus());
+        assertEquals(id, loaded.createTask(new Task("New", "Desc", 0, Status.NEW, null, null)).getId());
+    }
+
+    @Test
+    void parallelLoad_shouldStopAtBlankLineLikeSequentialLoad() throws IOException {
+        Files.write(tempFile.toPath(), List.of(
+                "id,type,name,status,description,startTime,duration,priority,epicId",
+                "1,TASK,Task1,NEW,Desc,,,,",
+                "",
+                "2,TASK,Task2,NEW,Desc,,,,"));
+
+        FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileParallel(tempFile);
+
+        assertEquals(1, parallel.getAllTasks().size());
+    }
+
+    @Test
+    void saveAndLoad_shouldKeepCommasAndNewlinesInText() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 5000; i++) {
+            manager.createTask(new Task("Задача, " + i, "Первая строка\nвторая, \"в кавычках\"", 0,
+                    Status.NEW, baseTime.plusHours(i), Duration.ofMinutes(30)));
+        }
+
+        FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(tempFile);
+        FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileParallel(tempFile, new ForkJoinPool(4));
+
+        for (FileBackedTaskManager loaded : List.of(sequential, parallel)) {
+            assertEquals(5000, loaded.getAllTasks().size());
+            Task task = loaded.getTask(4321);
+            assertEquals("Задача, 4320", task.getName());
+            assertEquals("Первая строка\nвторая, \"в кавычках\"", task.getDescription());
+        }
+    }
+
+    @Test
+    void historyShouldSurviveRestart() {
+        Task first = manager.createTask(new Task("Task 1", "Desc", 0, Status.NEW, null, null));
+        Task second = manager.createTask(new Task("Task 2", "Desc", 0, Status.NEW, null, null));
+        Task third = manager.createTask(new Task("Task 3", "Desc", 0, Status.NEW, null, null));
+        manager.getTask(first.getId());
+        manager.getTask(second.getId());
+        manager.getTask(third.getId());
+        manager.getTask(first.getId());
+        manager.deleteTask(third.getId());
+        manager.flushHistory();
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(List.of(second, first), loaded.getHistory());
+
+        // Журнал после восстановления сжат до самой истории и продолжает дописываться
+        assertEquals(2L * Integer.BYTES, FileBackedTaskManager.historyFile(tempFile).length());
+        loaded.getTask(second.getId());
+        loaded.flushHistory();
+        assertEquals(List.of(first, second), FileBackedTaskManager.loadFromFile(tempFile).getHistory());
+    }
+
+    @Test
+    void historyShouldNotBeWrittenOnEveryRead() {
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        manager.getTask(task.getId());
+
+        assertFalse(FileBackedTaskManager.historyFile(tempFile).exists(), "Просмотры пишутся пачкой");
+        manager.flushHistory();
+        assertEquals(Integer.BYTES, FileBackedTaskManager.historyFile(tempFile).length());
+    }
+
+    @Test
+    void newBoardShouldDiscardHistoryLogLeftOnSamePath() {
+        Task old = manager.createTask(new Task("Old", "Desc", 0, Status.NEW, null, null));
+        manager.getTask(old.getId());
+        manager.flushHistory();
+        assertTrue(FileBackedTaskManager.historyFile(tempFile).exists());
+
+        FileBackedTaskManager fresh = new FileBackedTaskManager(tempFile);
+        assertFalse(FileBackedTaskManager.historyFile(tempFile).exists());
+        Task unseen = fresh.createTask(new Task("Never viewed", "Desc", 0, Status.NEW, null, null));
+        assertEquals(old.getId(), unseen.getId()); // тот же id, что у просмотренной задачи прежней доски
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(List.of(), loaded.getHistory());
+    }
+
+    @Test
+    void historyReplayShouldIgnoreTornTail() throws IOException {
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        manager.getTask(task.getId());
+        manager.flushHistory();
+        Files.write(FileBackedTaskManager.historyFile(tempFile).toPath(), new byte[]{0, 0},
+                StandardOpenOption.APPEND);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(List.of(task), loaded.getHistory());
+        assertEquals(Integer.BYTES, FileBackedTaskManager.historyFile(tempFile).length());
+    }
+
+    @Test
+    void historyViewsShouldBeKeptWhenLogCannotBeWritten() throws IOException {
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        Path log = FileBackedTaskManager.historyFile(tempFile).toPath();
+        Files.createDirectory(log); // журнал истории нельзя открыть на запись
+
+        for (int i = 0; i < 3 * PersistentHistoryManager.MAX_PENDING_RECORDS; i++) {
+            assertEquals(task, manager.getTask(task.getId()), "Сбой журнала не должен ломать чтение");
+        }
+        assertEquals(List.of(task), manager.getHistory());
+        assertThrows(FileBackedTaskManager.ManagerSaveException.class, manager::flushHistory);
+
+        Files.delete(log);
+        manager.flushHistory();
+
+        assertEquals(List.of(task), FileBackedTaskManager.loadFromFile(tempFile).getHistory());
+    }
 }
@@ -0,0 +1,86 @@
+import main.manager.FrequencySketch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void shouldNeverUnderestimateAndFindHeavyHitters() {
+        FrequencySketch sketch = new FrequencySketch(1_024, 8);
+        int[] exact = new int[5_001];
+        Random random = new Random(24);
+
+        // Около трети обращений приходится на id 1..5, остальные размазаны по 5000 id
+        for (int i = 0; i < 6_000; i++) {
+            int id = random.nextInt(3) == 0 ? random.nextInt(5) + 1 : random.nextInt(5_000) + 1;
+            sketch.record(id);
+            exact[id]++;
+        }
+
+        for (int id = 1; id <= 5_000; id++) {
+            assertTrue(sketch.estimate(id) >= exact[id], "id " + id);
+        }
+        int[] hottest = sketch.hottest(5);
+        assertEquals(5, hottest.length);
+        for (int id : hottest) {
+            assertTrue(id >= 1 && id <= 5, "Среди самых частых лишний id " + id);
+        }
+    }
+
+    @Test
+    void shouldHalveCountersAfterSample() {
+        FrequencySketch sketch = new FrequencySketch(2, 4);
+        for (int i = 0; i < 19; i++) {
+            sketch.record(7);
+        }
+        assertEquals(19, sketch.estimate(7));
+
+        sketch.record(7); // 20-е обращение — конец выборки для ширины 2
+        assertEquals(10, sketch.estimate(7));
+    }
+
+    @Test
+    void removedIdShouldLeaveHottest() {
+        FrequencySketch sketch = new FrequencySketch();
+        sketch.record(1);
+        sketch.record(2);
+        sketch.record(2);
+
+        assertArrayEquals(new int[]{2, 1}, sketch.hottest(10));
+        sketch.remove(2);
+        assertArrayEquals(new int[]{1}, sketch.hottest(10));
+    }
+
+    @Test
+    void negativeCountShouldBeRejected() {
+        FrequencySketch sketch = new FrequencySketch();
+        sketch.record(1);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.hottest(-1));
+        assertEquals(0, sketch.hottest(0).length);
+    }
+
+    @Test
+    void concurrentRecordsShouldNotBeLost() throws InterruptedException {
+        FrequencySketch sketch = new FrequencySketch(4_096, 8);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    sketch.record(i % 2 + 1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 4000 обращений меньше выборки, поэтому старения не было и счётчики точны сверху
+        assertTrue(sketch.estimate(1) >= 2_000);
+        assertTrue(sketch.estimate(2) >= 2_000);
+    }
+}
@@ -56,4 +56,43 @@ class InMemoryHistoryManagerTest {
         assertEquals(1, history.size());
         assertEquals(task2, history.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldEvictLeastRecentlyViewedWhenFull() {
+        HistoryManager bounded = new InMemoryHistoryManager(2);
+        Task task3 = new Task("Task3", "Desc", 3, Status.NEW, null, null);
+
+        bounded.add(task1);
+        bounded.add(task2);
+        bounded.add(task1); // task1 снова просмотрена — вытесняться должна task2
+        bounded.add(task3);
+
+        assertEquals(List.of(task1, task3), bounded.getHistory());
+    }
+
+    @Test
+    void shouldDeriveCapacityFromMemoryLimit() {
+        InMemoryHistoryManager bySize = new InMemoryHistoryManager(100, Long.MAX_VALUE);
+        InMemoryHistoryManager byBytes = new InMemoryHistoryManager(100, 480);
+
+        assertEquals(100, bySize.getCapacity());
+        assertEquals(10, byBytes.getCapacity());
+        assertEquals(Integer.MAX_VALUE, new InMemoryHistoryManager().getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryHistoryManager(0));
+    }
+
+    @Test
+    void shouldReturnPagesFromNewestView() {
+        Task task3 = new Task("Task3", "Desc", 3, Status.NEW, null, null);
+        historyManager.add(task1);
+        historyManager.add(task2);
+        historyManager.add(task3);
+        historyManager.add(task1);
+
+        assertEquals(List.of(task1, task3), historyManager.getHistory(0, 2));
+        assertEquals(List.of(task2), historyManager.getHistory(2, 2));
+        assertEquals(List.of(), historyManager.getHistory(3, 2));
+        assertEquals(List.of(task1, task3, task2), historyManager.getHistory(0, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> historyManager.getHistory(-1, 2));
+    }
+}
@@ -0,0 +1,107 @@
+import main.manager.IntHashMap;
+import main.manager.SortedIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapUnderRandomOperations() {
+        IntHashMap<String> map = new IntHashMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(17);
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(expected.get(key), map.get(key), "Ключ " + key);
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        assertEquals(expected.size(), map.values().size());
+        assertTrue(map.values().containsAll(expected.values()));
+    }
+
+    @Test
+    void shouldRejectNullValues() {
+        IntHashMap<String> map = new IntHashMap<>();
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+
+    @Test
+    void sortedMapShouldIterateByKeyAndReadFromCursor() {
+        SortedIntHashMap<String> map = new SortedIntHashMap<>();
+        for (int key : new int[]{5, 1, 9, 3, 7}) {
+            map.put(key, "v" + key);
+        }
+        map.remove(3);
+        map.put(3, "again"); // повторно добавленный ключ остаётся на своём месте
+        map.remove(9);
+        map.put(4, "v4");
+
+        assertEquals(List.of("v1", "again", "v4", "v5", "v7"), new ArrayList<>(map.values()));
+        assertEquals(List.of("v5", "v7"), collect(map.valuesAfter(4)));
+        assertEquals(List.of("v7"), collect(map.valuesAfter(6)));
+        assertEquals(List.of(), collect(map.valuesAfter(7)));
+        assertEquals(5, collect(map.valuesAfter(Integer.MIN_VALUE)).size());
+    }
+
+    @Test
+    void sortedMapShouldStayOrderedAfterCompaction() {
+        SortedIntHashMap<Integer> map = new SortedIntHashMap<>();
+        for (int key = 1; key <= 1_000; key++) {
+            map.put(key, key);
+        }
+        for (int key = 1; key <= 1_000; key++) {
+            if (key % 10 != 0) {
+                map.remove(key);
+            }
+        }
+
+        List<Integer> values = new ArrayList<>(map.values());
+        assertEquals(100, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals((i + 1) * 10, values.get(i));
+        }
+        assertEquals(List.of(990, 1000), collect(map.valuesAfter(985)));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.values().iterator().hasNext());
+    }
+
+    @Test
+    void iteratorShouldFailOnConcurrentModification() {
+        SortedIntHashMap<String> map = new SortedIntHashMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+
+        Iterator<String> iterator = map.values().iterator();
+        iterator.next();
+        map.put(3, "c");
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    private static <T> List<T> collect(Iterable<T> values) {
+        List<T> result = new ArrayList<>();
+        values.forEach(result::add);
+        return result;
+    }
+}
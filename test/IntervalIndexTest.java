@@ -0,0 +1,148 @@
+import main.enums.Status;
+import main.manager.IntervalIndex;
+import main.models.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalIndexTest {
+    private IntervalIndex index;
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        index = new IntervalIndex();
+        baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+    }
+
+    private Task taskAt(int id, int startMinutes, int durationMinutes) {
+        return new Task("Task" + id, "Desc", id, Status.NEW,
+                baseTime.plusMinutes(startMinutes), Duration.ofMinutes(durationMinutes));
+    }
+
+    @Test
+    void shouldDetectOverlapWithStoredInterval() {
+        index.add(taskAt(1, 0, 60));
+
+        assertTrue(index.overlaps(baseTime.plusMinutes(30), baseTime.plusMinutes(90), 2));
+        assertTrue(index.overlaps(baseTime.minusMinutes(30), baseTime, 2), "Границы включительные");
+        assertFalse(index.overlaps(baseTime.plusMinutes(61), baseTime.plusMinutes(90), 2));
+    }
+
+    @Test
+    void shouldIgnoreExcludedId() {
+        index.add(taskAt(1, 0, 60));
+
+        assertFalse(index.overlaps(baseTime, baseTime.plusMinutes(60), 1));
+    }
+
+    @Test
+    void shouldFindOverlapWithLongIntervalStartedEarlier() {
+        index.add(taskAt(1, 0, 24 * 60)); // длинный интервал, начавшийся раньше остальных
+        for (int i = 2; i <= 100; i++) {
+            index.add(taskAt(i, 2 * 24 * 60 + i * 10, 5));
+        }
+
+        assertTrue(index.overlaps(baseTime.plusHours(12), baseTime.plusHours(13), 0));
+        assertFalse(index.overlaps(baseTime.plusHours(30), baseTime.plusHours(31), 0));
+    }
+
+    @Test
+    void shouldForgetRemovedAndReplacedIntervals() {
+        Task task = taskAt(1, 0, 60);
+        index.add(task);
+        index.remove(task.getId());
+
+        assertFalse(index.overlaps(baseTime, baseTime.plusMinutes(60), 0));
+        assertEquals(0, index.size());
+
+        index.add(task);
+        index.add(taskAt(1, 120, 60)); // тот же id — старый интервал заменяется
+
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps(baseTime, baseTime.plusMinutes(60), 0));
+        assertTrue(index.overlaps(baseTime.plusMinutes(150), baseTime.plusMinutes(160), 0));
+    }
+
+    @Test
+    void shouldMatchLinearScanOnManyIntervals() {
+        Random random = new Random(42);
+        List<Task> stored = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            Task task = taskAt(i, random.nextInt(100_000), 1 + random.nextInt(300));
+            stored.add(task);
+            index.add(task);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            index.remove(stored.get(i).getId());
+        }
+
+        for (int q = 0; q < 1000; q++) {
+            LocalDateTime start = baseTime.plusMinutes(random.nextInt(100_000));
+            LocalDateTime end = start.plusMinutes(random.nextInt(120));
+            boolean expected = false;
+            for (int i = 0; i < stored.size(); i++) {
+                Task task = stored.get(i);
+                if (i < 200 && i % 2 == 0) continue;
+                if (!task.getEndTime().isBefore(start) && !task.getStartTime().isAfter(end)) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertEquals(expected, index.overlaps(start, end, 0));
+        }
+    }
+
+    @Test
+    void findOverlappingShouldReturnSortedIntersectingIntervals() {
+        Random random = new Random(7);
+        List<Task> stored = new ArrayList<>();
+        for (int i = 1; i <= 300; i++) {
+            Task task = taskAt(i, random.nextInt(50_000), 1 + random.nextInt(2_000));
+            stored.add(task);
+            index.add(task);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            LocalDateTime start = baseTime.plusMinutes(random.nextInt(50_000));
+            LocalDateTime end = start.plusMinutes(random.nextInt(3_000));
+            List<Task> expected = stored.stream()
+                    .filter(task -> !task.getEndTime().isBefore(start) && !task.getStartTime().isAfter(end))
+                    .sorted(Comparator.comparing(Task::getStartTime).thenComparing(Task::getId))
+                    .toList();
+
+            assertEquals(expected, index.findOverlapping(start, end));
+        }
+    }
+
+    @Test
+    void pagedFindOverlappingShouldContinueAfterCursor() {
+        Random random = new Random(7);
+        for (int id = 1; id <= 500; id++) {
+            index.add(taskAt(id, random.nextInt(5_000), 1 + random.nextInt(120)));
+        }
+        LocalDateTime from = baseTime.plusMinutes(1_000);
+        LocalDateTime to = baseTime.plusMinutes(3_000);
+        List<Task> window = index.findOverlapping(from, to);
+
+        List<Task> paged = new ArrayList<>();
+        List<Task> page = index.findOverlapping(from, to, null, 0, 7);
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= 7);
+            paged.addAll(page);
+            Task last = page.getLast();
+            page = index.findOverlapping(from, to, last.getStartTime(), last.getId(), 7);
+        }
+
+        assertFalse(window.isEmpty());
+        assertEquals(window, paged);
+    }
+}
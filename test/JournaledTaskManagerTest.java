@@ -0,0 +1,154 @@
+import main.enums.Status;
+import main.manager.FileBackedTaskManager;
+import main.manager.JournaledTaskManager;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledTaskManagerTest extends TaskManagerTest<JournaledTaskManager> {
+    private File tempFile;
+
+    @Override
+    protected JournaledTaskManager createManager() {
+        try {
+            tempFile = File.createTempFile("tasks", ".csv");
+            return new JournaledTaskManager(tempFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось создать временный файл", e);
+        }
+    }
+
+    @AfterEach
+    void deleteTempFiles() throws IOException {
+        manager.close();
+        Files.deleteIfExists(tempFile.toPath());
+        Files.deleteIfExists(JournaledTaskManager.journalFile(tempFile).toPath());
+        Files.deleteIfExists(FileBackedTaskManager.historyFile(tempFile).toPath());
+    }
+
+    @Test
+    void mutationsShouldOnlyAppendToJournal() throws IOException {
+        long snapshotSize = tempFile.length();
+
+        manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        manager.createTask(new Task("Task2", "Desc", 0, Status.NEW, null, null));
+
+        assertEquals(snapshotSize, tempFile.length(), "Снимок не должен переписываться");
+        assertEquals(2, Files.readAllLines(JournaledTaskManager.journalFile(tempFile).toPath()).size());
+    }
+
+    @Test
+    void loadShouldReplaySnapshotAndJournal() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Task kept = manager.createTask(new Task("Kept", "Desc", 0, Status.NEW, null, null));
+        manager.saveToFile(); // снимок с одной задачей, журнал пуст
+
+        Task deleted = manager.createTask(new Task("Deleted", "Desc", 0, Status.NEW, null, null));
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.NEW,
+                epic.getId(), baseTime, Duration.ofHours(1)));
+        manager.updateSubtask(new Subtask("Sub", "Desc", subtask.getId(), Status.DONE,
+                epic.getId(), baseTime.plusHours(2), Duration.ofHours(1)));
+        manager.deleteTask(deleted.getId());
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(tempFile);
+
+        assertNotNull(loaded.getTask(kept.getId()));
+        assertNull(loaded.getTask(deleted.getId()));
+        assertEquals(Status.DONE, loaded.getSubtask(subtask.getId()).getStatus());
+        Epic loadedEpic = loaded.getEpic(epic.getId());
+        assertEquals(Status.DONE, loadedEpic.getStatus());
+        assertEquals(baseTime.plusHours(2), loadedEpic.getStartTime());
+        assertFalse(JournaledTaskManager.journalFile(tempFile).exists(), "Журнал сворачивается в снимок");
+    }
+
+    @Test
+    void deletedEpicShouldTakeSubtasksWithItOnReplay() {
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.NEW,
+                epic.getId(), null, null));
+        manager.saveToFile();
+        manager.deleteEpic(epic.getId());
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(tempFile);
+
+        assertNull(loaded.getEpic(epic.getId()));
+        assertNull(loaded.getSubtask(subtask.getId()));
+    }
+
+    @Test
+    void journalShouldBeCompactedAfterThreshold() {
+        JournaledTaskManager compacting = new JournaledTaskManager(tempFile, 3);
+        for (int i = 0; i < 3; i++) {
+            compacting.createTask(new Task("Task" + i, "Desc", 0, Status.NEW, null, null));
+        }
+
+        assertFalse(JournaledTaskManager.journalFile(tempFile).exists());
+        assertEquals(3, JournaledTaskManager.loadFromFile(tempFile).getAllTasks().size());
+    }
+
+    @Test
+    void journalShouldKeepCommasAndNewlinesInText() {
+        Task task = manager.createTask(new Task("Name, with comma", "Line 1\nLine 2", 0, Status.NEW, null, null));
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(tempFile);
+
+        assertEquals("Name, with comma", loaded.getTask(task.getId()).getName());
+        assertEquals("Line 1\nLine 2", loaded.getTask(task.getId()).getDescription());
+    }
+
+    @Test
+    void corruptRecordInMiddleShouldFailLoadAndKeepJournal() throws IOException {
+        manager.createTask(new Task("First", "Desc", 0, Status.NEW, null, null));
+        Path journal = JournaledTaskManager.journalFile(tempFile).toPath();
+        Files.write(journal, "PUT,garbage\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        manager.createTask(new Task("After corruption", "Desc", 0, Status.NEW, null, null));
+        byte[] before = Files.readAllBytes(journal);
+
+        assertThrows(IllegalStateException.class, () -> JournaledTaskManager.loadFromFile(tempFile));
+        assertArrayEquals(before, Files.readAllBytes(journal), "Журнал не должен сворачиваться");
+    }
+
+    @Test
+    void tornLastRecordShouldBeDropped() throws IOException {
+        Task kept = manager.createTask(new Task("Kept", "Desc", 0, Status.NEW, null, null));
+        Path journal = JournaledTaskManager.journalFile(tempFile).toPath();
+        Files.write(journal, "PUT,2,TASK,Tor".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(tempFile);
+
+        assertEquals(List.of(kept.getId()), loaded.getAllTasks().stream().map(Task::getId).toList());
+        assertFalse(Files.exists(journal), "Журнал с оборванной записью сворачивается в снимок");
+        loaded.close();
+    }
+
+    @Test
+    void newManagerShouldDiscardPreviousBoardOnSamePath() {
+        manager.createTask(new Task("Old1", "Desc", 0, Status.NEW, null, null));
+        manager.saveToFile();
+        manager.createTask(new Task("Old2", "Desc", 0, Status.NEW, null, null)); // только в журнале
+        manager.close();
+
+        manager = new JournaledTaskManager(tempFile);
+        manager.createTask(new Task("New1", "Desc", 0, Status.NEW, null, null));
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(tempFile);
+
+        assertEquals(List.of("New1"), loaded.getAllTasks().stream().map(Task::getName).toList());
+        loaded.close();
+    }
+}
@@ -1,4 +1,5 @@
 import main.manager.HistoryManager;
+import main.manager.InMemoryHistoryManager;
 import main.manager.Managers;
 import main.manager.TaskManager;
 import org.junit.jupiter.api.Test;
@@ -16,4 +17,11 @@ class ManagersTest {
         HistoryManager historyManager = Managers.getDefaultHistory();
         assertNotNull(historyManager, "Менеджер истории не должен быть null");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getDefaultHistoryShouldBeBounded() {
+        InMemoryHistoryManager history = (InMemoryHistoryManager) Managers.getDefaultHistory();
+        assertEquals(Managers.DEFAULT_HISTORY_SIZE, history.getCapacity());
+        assertEquals(5, ((InMemoryHistoryManager) Managers.getDefaultHistory(5)).getCapacity());
+    }
+}
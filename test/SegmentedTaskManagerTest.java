@@ -0,0 +1,120 @@
+import main.enums.Status;
+import main.manager.FileBackedTaskManager;
+import main.manager.SegmentedTaskManager;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedTaskManagerTest extends TaskManagerTest<SegmentedTaskManager> {
+    private static final int SEGMENT_SIZE = 4;
+    private Path directory;
+
+    @Override
+    protected SegmentedTaskManager createManager() {
+        try {
+            directory = Files.createTempDirectory("tasks");
+            return new SegmentedTaskManager(directory.toFile(), SEGMENT_SIZE);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось создать временный каталог", e);
+        }
+    }
+
+    @AfterEach
+    void deleteTempDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+        Files.deleteIfExists(FileBackedTaskManager.historyFile(directory.toFile()).toPath());
+    }
+
+    @Test
+    void mutationShouldRewriteOnlyItsSegment() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            manager.createTask(new Task("Task" + i, "Desc", 0, Status.NEW, null, null));
+        }
+        Path first = directory.resolve("task-0.csv");
+        Path last = directory.resolve("task-2.csv");
+        String firstBefore = Files.readString(first);
+
+        manager.updateTask(new Task("Renamed", "Desc", 9, Status.DONE, null, null));
+
+        assertEquals(firstBefore, Files.readString(first), "Чужой сегмент не должен переписываться");
+        assertTrue(Files.readString(last).contains("Renamed"));
+        assertEquals(3, manager.getSegmentCount());
+    }
+
+    @Test
+    void emptySegmentShouldBeRemoved() {
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        manager.deleteTask(task.getId());
+
+        assertEquals(0, manager.getSegmentCount());
+        assertFalse(Files.exists(directory.resolve("task-0.csv")));
+    }
+
+    @Test
+    void loadShouldRestoreAllSegments() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        for (int i = 0; i < 9; i++) {
+            manager.createSubtask(new Subtask("Sub" + i, "Desc", 0, Status.DONE,
+                    epic.getId(), baseTime.plusHours(i * 2L), Duration.ofHours(1)));
+        }
+        Epic removed = manager.createEpic(new Epic("Removed", "Desc", 0, Status.NEW));
+        Subtask removedSubtask = manager.createSubtask(new Subtask("Gone", "Desc", 0, Status.NEW,
+                removed.getId(), null, null));
+        manager.deleteEpic(removed.getId());
+
+        SegmentedTaskManager loaded = SegmentedTaskManager.loadFromFile(directory.toFile(), SEGMENT_SIZE);
+
+        assertEquals(9, loaded.getAllSubtasks().size());
+        assertNull(loaded.getSubtask(removedSubtask.getId()));
+        Epic loadedEpic = loaded.getEpic(epic.getId());
+        assertEquals(Status.DONE, loadedEpic.getStatus());
+        assertEquals(baseTime, loadedEpic.getStartTime());
+    }
+
+    @Test
+    void loadShouldDropSubtasksLeftByInterruptedEpicDelete() throws IOException {
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.NEW, epic.getId(), null, null));
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        // Сегмент эпика уже удалён, а сегмент подзадач ещё не переписан
+        Files.delete(directory.resolve("epic-0.csv"));
+
+        SegmentedTaskManager loaded = SegmentedTaskManager.loadFromFile(directory.toFile(), SEGMENT_SIZE);
+
+        assertNull(loaded.getSubtask(subtask.getId()));
+        assertNotNull(loaded.getTask(task.getId()));
+        assertFalse(Files.exists(directory.resolve("subtask-0.csv")), "Сегмент подзадач исправлен на диске");
+    }
+
+    @Test
+    void newManagerShouldDiscardPreviousBoardInSameDirectory() {
+        for (int i = 0; i < 5; i++) {
+            manager.createTask(new Task("Old" + i, "Desc", 0, Status.NEW, null, null));
+        }
+
+        manager = new SegmentedTaskManager(directory.toFile(), SEGMENT_SIZE);
+        manager.createTask(new Task("New1", "Desc", 0, Status.NEW, null, null));
+
+        SegmentedTaskManager loaded = SegmentedTaskManager.loadFromFile(directory.toFile(), SEGMENT_SIZE);
+
+        assertEquals(List.of("New1"), loaded.getAllTasks().stream().map(Task::getName).toList());
+        assertEquals(1, loaded.getSegmentCount());
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -240,4 +242,117 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(task.getId(), history.get(0).getId());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnTasksPageByPage() {
+        for (int i = 0; i < 5; i++) {
+            manager.createTask(new Task("Task" + i, "Desc", 0, Status.NEW, null, null));
+        }
+
+        List<Task> first = manager.getTasks(0, 2);
+        List<Task> second = manager.getTasks(first.get(1).getId(), 2);
+        List<Task> last = manager.getTasks(second.get(1).getId(), 2);
+
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        assertEquals(1, last.size());
+        assertTrue(first.get(1).getId() < second.get(0).getId(), "Страницы идут в порядке id");
+        assertTrue(manager.getTasks(last.get(0).getId(), 2).isEmpty());
+    }
+
+    @Test
+    void shouldWalkPrioritizedTasksWithCursor() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        manager.createTask(new Task("Untimed", "Desc", 0, Status.NEW, null, null));
+        manager.createTask(new Task("Late", "Desc", 0, Status.NEW, baseTime.plusHours(5), Duration.ofMinutes(30)));
+        manager.createTask(new Task("Early", "Desc", 0, Status.NEW, baseTime, Duration.ofMinutes(30)));
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+
+        List<Task> walked = new ArrayList<>();
+        List<Task> page = manager.getPrioritizedTasks(null, 0, 2);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            Task cursor = page.getLast();
+            page = manager.getPrioritizedTasks(cursor.getStartTime(), cursor.getId(), 2);
+        }
+
+        assertEquals(List.of("Early", "Late", "Untimed", "Epic"), walked.stream().map(Task::getName).toList());
+        assertEquals(epic, walked.getLast());
+    }
+
+    @Test
+    void shouldReturnTasksIntersectingTimeWindow() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 6, 0, 0);
+        Task longTask = manager.createTask(new Task("Long", "Desc", 0, Status.NEW,
+                baseTime.minusDays(2), Duration.ofDays(3)));
+        Task inside = manager.createTask(new Task("Inside", "Desc", 0, Status.NEW,
+                baseTime.plusDays(2), Duration.ofHours(1)));
+        manager.createTask(new Task("Before", "Desc", 0, Status.NEW, baseTime.minusDays(10), Duration.ofHours(1)));
+        manager.createTask(new Task("After", "Desc", 0, Status.NEW, baseTime.plusDays(10), Duration.ofHours(1)));
+        manager.createTask(new Task("Untimed", "Desc", 0, Status.NEW, null, null));
+
+        List<Task> week = manager.getPrioritizedTasksBetween(baseTime, baseTime.plusDays(7));
+
+        assertEquals(List.of(longTask, inside), week);
+        assertTrue(manager.getPrioritizedTasksBetween(baseTime.plusDays(7), baseTime).isEmpty());
+    }
+
+    @Test
+    void prioritizedViewShouldBeCachedUntilNextChange() {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Task timed = manager.createTask(new Task("Timed", "Desc", 0, Status.NEW, baseTime, Duration.ofMinutes(30)));
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+
+        List<Task> first = manager.getPrioritizedTasks();
+        assertSame(first, manager.getPrioritizedTasks(), "Без изменений список не пересобирается");
+        assertEquals(List.of(timed, epic), first);
+        assertThrows(UnsupportedOperationException.class, () -> first.add(timed));
+
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.NEW, epic.getId(),
+                baseTime.minusHours(2), Duration.ofMinutes(30)));
+        List<Task> second = manager.getPrioritizedTasks();
+
+        assertNotSame(first, second);
+        assertEquals(List.of(subtask, timed), second.subList(1, 3));
+        // Сравнение по id: потокобезопасный менеджер отдаёт копии, а не живой эпик
+        assertEquals(epic.getId(), second.get(0).getId(), "Эпик получил время подзадачи и переместился в начало");
+
+        manager.deleteAllSubtasks();
+        assertEquals(List.of(timed, epic), manager.getPrioritizedTasks());
+    }
+
+    @Test
+    void shouldReturnOnlySubtasksOfRequestedEpic() {
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Epic other = manager.createEpic(new Epic("Other", "Desc", 0, Status.NEW));
+        Subtask first = manager.createSubtask(new Subtask("Sub1", "Desc", 0, Status.NEW, epic.getId(), null, null));
+        manager.createSubtask(new Subtask("Sub2", "Desc", 0, Status.NEW, other.getId(), null, null));
+        Subtask second = manager.createSubtask(new Subtask("Sub3", "Desc", 0, Status.NEW, epic.getId(), null, null));
+
+        assertEquals(List.of(first, second), manager.getEpicSubtasks(epic.getId()));
+        assertTrue(manager.getEpicSubtasks(999).isEmpty());
+    }
+
+    @Test
+    void shouldReturnMostRequestedTasksFirst() {
+        Task rare = manager.createTask(new Task("Rare", "Desc", 0, Status.NEW, null, null));
+        Task hot = manager.createTask(new Task("Hot", "Desc", 0, Status.NEW, null, null));
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        manager.createTask(new Task("Never read", "Desc", 0, Status.NEW, null, null));
+
+        manager.getTask(rare.getId());
+        for (int i = 0; i < 5; i++) {
+            manager.getTask(hot.getId());
+            manager.getEpic(epic.getId());
+        }
+        manager.getTask(hot.getId());
+
+        List<Task> hotTasks = manager.getHotTasks(10);
+        assertEquals(List.of(hot.getId(), epic.getId(), rare.getId()), hotTasks.stream().map(Task::getId).toList());
+        assertEquals(1, manager.getHotTasks(1).size());
+        assertThrows(IllegalArgumentException.class, () -> manager.getHotTasks(-1));
+
+        manager.deleteTask(hot.getId());
+        assertEquals(epic.getId(), manager.getHotTasks(1).getFirst().getId());
+    }
+}
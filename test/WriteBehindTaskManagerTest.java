@@ -0,0 +1,106 @@
+import main.enums.FsyncPolicy;
+import main.enums.Status;
+import main.manager.FileBackedTaskManager;
+import main.manager.WriteBehindTaskManager;
+import main.models.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindTaskManagerTest extends TaskManagerTest<WriteBehindTaskManager> {
+    private File tempFile;
+
+    @Override
+    protected WriteBehindTaskManager createManager() {
+        try {
+            tempFile = File.createTempFile("tasks", ".csv");
+            return new WriteBehindTaskManager(tempFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось создать временный файл", e);
+        }
+    }
+
+    @AfterEach
+    void closeAndDelete() throws IOException {
+        manager.close();
+        Files.deleteIfExists(tempFile.toPath());
+        Files.deleteIfExists(FileBackedTaskManager.historyFile(tempFile).toPath());
+    }
+
+    @Test
+    void burstOfChangesShouldBeCoalescedIntoOneWrite() {
+        WriteBehindTaskManager slow = new WriteBehindTaskManager(tempFile, Duration.ofMinutes(1),
+                1000, FsyncPolicy.NONE);
+        for (int i = 0; i < 100; i++) {
+            slow.createTask(new Task("Task" + i, "Desc", 0, Status.NEW, null, null));
+        }
+
+        assertEquals(0, slow.getFlushCount(), "До барьера на диск ничего не пишется");
+        assertEquals(100, slow.getPendingChanges());
+
+        slow.flush();
+        slow.close();
+
+        assertEquals(1, slow.getFlushCount());
+        assertEquals(100, FileBackedTaskManager.loadFromFile(tempFile).getAllTasks().size());
+    }
+
+    @Test
+    void fullBatchShouldBeWrittenWithoutWaitingForDelay() throws InterruptedException {
+        WriteBehindTaskManager batched = new WriteBehindTaskManager(tempFile, Duration.ofMinutes(1),
+                10, FsyncPolicy.BATCH);
+        for (int i = 0; i < 10; i++) {
+            batched.createTask(new Task("Task" + i, "Desc", 0, Status.NEW, null, null));
+        }
+
+        for (int attempt = 0; attempt < 100 && batched.getFlushCount() == 0; attempt++) {
+            Thread.sleep(10);
+        }
+        batched.close();
+
+        assertEquals(1, batched.getFlushCount());
+        assertEquals(10, FileBackedTaskManager.loadFromFile(tempFile).getAllTasks().size());
+    }
+
+    @Test
+    void eachPolicyShouldWriteEveryChange() {
+        WriteBehindTaskManager durable = new WriteBehindTaskManager(tempFile, Duration.ofMinutes(1),
+                1000, FsyncPolicy.EACH);
+        durable.createTask(new Task("Task1", "Desc", 0, Status.NEW, null, null));
+        durable.createTask(new Task("Task2", "Desc", 0, Status.NEW, null, null));
+
+        assertEquals(2, durable.getFlushCount());
+        assertEquals(0, durable.getPendingChanges());
+        durable.close();
+    }
+
+    @Test
+    void failedWriteShouldKeepChangesPending() throws IOException {
+        Path directory = Files.createTempDirectory("tasks");
+        Files.delete(directory); // каталога нет — запись файла падает
+        File target = directory.resolve("tasks.csv").toFile();
+        WriteBehindTaskManager failing = new WriteBehindTaskManager(target, Duration.ofMinutes(1),
+                1000, FsyncPolicy.NONE);
+        failing.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+
+        assertThrows(FileBackedTaskManager.ManagerSaveException.class, failing::flush);
+        assertThrows(FileBackedTaskManager.ManagerSaveException.class, failing::flush,
+                "Повторный барьер не должен сообщать об успехе, пока изменения не записаны");
+        assertEquals(1, failing.getPendingChanges());
+
+        Files.createDirectory(directory);
+        failing.close();
+
+        assertEquals(0, failing.getPendingChanges());
+        assertEquals(1, FileBackedTaskManager.loadFromFile(target).getAllTasks().size());
+        Files.delete(target.toPath());
+        Files.delete(directory);
+    }
+}
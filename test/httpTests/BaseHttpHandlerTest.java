@@ -0,0 +1,79 @@
+package httpTests;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import main.enums.Status;
+import main.http.BaseHttpHandler;
+import main.manager.Managers;
+import main.models.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseHttpHandlerTest {
+    private HttpServer server;
+
+    // Сериализация падает на задаче "Broken", когда заголовки и часть тела уже отправлены
+    private static class FailingListHandler extends BaseHttpHandler {
+        private final List<Task> items = new ArrayList<>();
+
+        FailingListHandler(Gson gson) {
+            super(Managers.getDefault(), gson);
+            for (int i = 0; i < 1_000; i++) {
+                items.add(new Task("Task " + i, "desc", i + 1, Status.NEW, null, null));
+            }
+            items.add(new Task("Broken", "desc", 1_001, Status.NEW, null, null));
+        }
+
+        void handle(HttpExchange exchange) throws IOException {
+            try {
+                sendJsonList(exchange, items, 200);
+            } catch (Exception e) {
+                sendError(exchange, e.getMessage());
+            }
+        }
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void failureAfterHeadersShouldAbortResponseInsteadOfEndingIt() throws Exception {
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapter(Task.class, (JsonSerializer<Task>) (task, type, context) -> {
+                    if ("Broken".equals(task.getName())) {
+                        throw new IllegalStateException("Ошибка сериализации");
+                    }
+                    return new JsonPrimitive(task.getName());
+                })
+                .create();
+        FailingListHandler handler = new FailingListHandler(gson);
+        server = HttpServer.create(new InetSocketAddress(8082), 0);
+        server.createContext("/items", handler::handle);
+        server.start();
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder().uri(new URI("http://localhost:8082/items")).GET().build();
+
+        // Соединение разрывается: клиент не должен принять обрезанный массив за успешный ответ
+        assertThrows(IOException.class, () -> client.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+}
@@ -6,6 +6,7 @@ import main.http.HttpTaskServer;
 import main.manager.Managers;
 import main.manager.TaskManager;
 import main.models.Epic;
+import main.models.Subtask;
 import org.junit.jupiter.api.*;
 
 import java.net.URI;
@@ -103,4 +104,23 @@ class EpicHandlerTest {
         HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
         assertEquals(204, response.statusCode());
     }
+
+    @Test
+    void testGetEpicSubtasks() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Epic 1", "desc", 0, Status.NEW));
+        Epic other = manager.createEpic(new Epic("Epic 2", "desc", 0, Status.NEW));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub 1", "desc", 0, Status.NEW, epic.getId(), null, null));
+        manager.createSubtask(new Subtask("Sub 2", "desc", 0, Status.NEW, other.getId(), null, null));
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/epics/" + epic.getId() + "/subtasks"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        Subtask[] subtasks = gson.fromJson(response.body(), Subtask[].class);
+        assertEquals(1, subtasks.length);
+        assertEquals(subtask.getId(), subtasks[0].getId());
+    }
 }
@@ -3,7 +3,9 @@ package httpTests;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import main.enums.Status;
+import main.http.HistorySessions;
 import main.http.HttpTaskServer;
+import main.http.ListQuery;
 import main.manager.Managers;
 import main.manager.TaskManager;
 import main.models.Task;
@@ -80,4 +82,80 @@ class HistoryHandlerTest {
         HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
         assertEquals(405, response.statusCode());
     }
+
+    @Test
+    void testHistoryIsSeparatedBySession() throws Exception {
+        Task first = manager.createTask(new Task("Task 1", "desc", 0, Status.NEW, null, null));
+        Task second = manager.createTask(new Task("Task 2", "desc", 0, Status.NEW, null, null));
+
+        view("alice", first.getId());
+        view("bob", second.getId());
+        view("alice", second.getId());
+
+        assertEquals(List.of(first.getId(), second.getId()), historyIds("alice"));
+        assertEquals(List.of(second.getId()), historyIds("bob"));
+        assertEquals(List.of(), historyIds("carol"));
+
+        // Удалённая через API задача пропадает из истории всех сессий
+        client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks/" + second.getId()))
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.discarding());
+        assertEquals(List.of(first.getId()), historyIds("alice"));
+        assertEquals(List.of(), historyIds("bob"));
+    }
+
+    @Test
+    void testHistoryPageFromNewest() throws Exception {
+        Task first = manager.createTask(new Task("Task 1", "desc", 0, Status.NEW, null, null));
+        Task second = manager.createTask(new Task("Task 2", "desc", 0, Status.NEW, null, null));
+        Task third = manager.createTask(new Task("Task 3", "desc", 0, Status.NEW, null, null));
+        manager.getTask(first.getId());
+        manager.getTask(second.getId());
+        manager.getTask(third.getId());
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/history?limit=2"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        List<Task> page = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of(third.getId(), second.getId()), page.stream().map(Task::getId).toList());
+        String cursor = response.headers().firstValue(ListQuery.NEXT_CURSOR_HEADER).orElseThrow();
+
+        response = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/history?limit=2&cursor=" + cursor))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        page = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of(first.getId()), page.stream().map(Task::getId).toList());
+        assertTrue(response.headers().firstValue(ListQuery.NEXT_CURSOR_HEADER).isEmpty());
+
+        response = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/history?limit=2&cursor=-1"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+    private void view(String session, int id) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks/" + id))
+                .header(HistorySessions.SESSION_HEADER, session)
+                .GET()
+                .build();
+        assertEquals(200, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    private List<Integer> historyIds(String session) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/history"))
+                .header(HistorySessions.SESSION_HEADER, session)
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        List<Task> history = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        return history.stream().map(Task::getId).toList();
+    }
 }
@@ -0,0 +1,97 @@
+package httpTests;
+
+import main.enums.Status;
+import main.http.HistorySessions;
+import main.models.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistorySessionsTest {
+    private final AtomicLong now = new AtomicLong();
+
+    private static Task task(int id) {
+        return new Task("Task " + id, "desc", id, Status.NEW, null, null);
+    }
+
+    @Test
+    void shouldCapHistoryPerSession() {
+        HistorySessions sessions = new HistorySessions(10, Duration.ofMinutes(1), 2, now::get);
+        sessions.add("a", task(1));
+        sessions.add("a", task(2));
+        sessions.add("a", task(3));
+
+        assertEquals(List.of(task(2), task(3)), sessions.getHistory("a"));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSession() {
+        HistorySessions sessions = new HistorySessions(2, Duration.ofMinutes(1), 10, now::get);
+        sessions.add("a", task(1));
+        sessions.add("b", task(2));
+        sessions.getHistory("a"); // "a" использована позже "b"
+        sessions.add("c", task(3));
+
+        assertEquals(2, sessions.size());
+        assertEquals(List.of(task(1)), sessions.getHistory("a"));
+        assertTrue(sessions.getHistory("b").isEmpty());
+    }
+
+    @Test
+    void shouldKeepRecencyOrderAcrossManyRequests() {
+        HistorySessions sessions = new HistorySessions(3, Duration.ofMinutes(1), 10, now::get);
+        sessions.add("a", task(1));
+        sessions.add("b", task(2));
+        sessions.add("c", task(3));
+        for (int i = 0; i < 5_000; i++) { // очередь обращений успевает вычиститься несколько раз
+            sessions.getHistory(i % 2 == 0 ? "a" : "c");
+        }
+        sessions.add("d", task(4));
+
+        assertEquals(3, sessions.size());
+        assertTrue(sessions.getHistory("b").isEmpty());
+        assertEquals(List.of(task(1)), sessions.getHistory("a"));
+        assertEquals(List.of(task(3)), sessions.getHistory("c"));
+    }
+
+    @Test
+    void shouldExpireIdleSessions() {
+        HistorySessions sessions = new HistorySessions(10, Duration.ofSeconds(30), 10, now::get);
+        sessions.add("a", task(1));
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+        sessions.add("b", task(2));
+        now.addAndGet(Duration.ofSeconds(15).toNanos());
+
+        assertTrue(sessions.getHistory("a").isEmpty());
+        assertEquals(List.of(task(2)), sessions.getHistory("b"));
+        assertEquals(1, sessions.size());
+    }
+
+    @Test
+    void removedTaskShouldDisappearFromEverySession() {
+        HistorySessions sessions = new HistorySessions(10, Duration.ofMinutes(1), 10, now::get);
+        sessions.add("a", task(1));
+        sessions.add("a", task(2));
+        sessions.add("b", task(1));
+
+        sessions.remove(1);
+
+        assertEquals(List.of(task(2)), sessions.getHistory("a"));
+        assertTrue(sessions.getHistory("b").isEmpty());
+    }
+
+    @Test
+    void taskViewedAgainAfterRemovalShouldStay() {
+        HistorySessions sessions = new HistorySessions(10, Duration.ofMinutes(1), 10, now::get);
+        sessions.add("a", task(1));
+        sessions.remove(1);
+        sessions.add("a", task(1)); // задача с тем же id создана заново
+        sessions.remove(2);
+
+        assertEquals(List.of(task(1)), sessions.getHistory("a"));
+    }
+}
@@ -0,0 +1,99 @@
+package httpTests;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import main.enums.Status;
+import main.http.HttpTaskServer;
+import main.manager.Managers;
+import main.manager.TaskManager;
+import main.models.Task;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotHandlerTest {
+    private static HttpTaskServer server;
+    private static TaskManager manager;
+    private static Gson gson;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        manager = Managers.getDefault();
+        server = new HttpTaskServer(manager);
+        gson = HttpTaskServer.getGson();
+        client = HttpClient.newHttpClient();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void testHotTasksAreOrderedByRequests() throws Exception {
+        Task first = manager.createTask(new Task("Task 1", "desc", 0, Status.NEW, null, null));
+        Task second = manager.createTask(new Task("Task 2", "desc", 0, Status.NEW, null, null));
+        for (int i = 0; i < 3; i++) {
+            client.send(HttpRequest.newBuilder()
+                    .uri(new URI("http://localhost:8080/tasks/" + second.getId()))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+        manager.getTask(first.getId());
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/hot?limit=1"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        List<Task> hot = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of(second.getId()), hot.stream().map(Task::getId).toList());
+
+        response = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/hot"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        hot = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of(second.getId(), first.getId()), hot.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void testHotTaskReflectsUpdate() throws Exception {
+        Task task = manager.createTask(new Task("Before", "desc", 0, Status.NEW, null, null));
+        for (int i = 0; i < 10; i++) {
+            manager.getTask(task.getId());
+        }
+        HttpRequest hotRequest = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/hot?limit=1"))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(hotRequest, HttpResponse.BodyHandlers.ofString());
+        List<Task> hot = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals("Before", hot.getFirst().getName());
+
+        manager.updateTask(new Task("After", "desc", task.getId(), Status.DONE, null, null));
+        response = client.send(hotRequest, HttpResponse.BodyHandlers.ofString());
+        hot = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of(task.getId()), hot.stream().map(Task::getId).toList());
+        assertEquals("After", hot.getFirst().getName());
+        manager.deleteTask(task.getId());
+    }
+
+    @Test
+    void testBadLimit() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/hot?limit=0"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+}
@@ -0,0 +1,58 @@
+package httpTests;
+
+import main.enums.ExecutorMode;
+import main.enums.Status;
+import main.http.HttpTaskServer;
+import main.manager.Managers;
+import main.manager.TaskManager;
+import main.models.Task;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTaskServerTest {
+
+    @ParameterizedTest
+    @EnumSource(ExecutorMode.class)
+    void shouldServeParallelRequestsInEveryExecutorMode(ExecutorMode mode) throws Exception {
+        TaskManager manager = Managers.getConcurrent();
+        Task task = manager.createTask(new Task("Task", "desc", 0, Status.NEW, null, null));
+        HttpTaskServer server = new HttpTaskServer(manager, 8081, 64, mode);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(new URI("http://localhost:" + server.getPort() + "/tasks/" + task.getId()))
+                    .GET()
+                    .build();
+
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+            assertEquals(1, manager.getHistory().size());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ExecutorMode.class, names = "DISPATCHER", mode = EnumSource.Mode.EXCLUDE)
+    void shouldRejectNonThreadSafeManagerInMultiThreadedModes(ExecutorMode mode) {
+        TaskManager manager = Managers.getDefault();
+
+        assertThrows(IllegalArgumentException.class, () -> new HttpTaskServer(manager, 8081, 64, mode));
+    }
+}
@@ -81,4 +81,56 @@ class PrioritizedHandlerTest {
         HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
         assertEquals(405, response.statusCode());
     }
+
+    @Test
+    void testGetPrioritizedTasksInTimeWindow() throws Exception {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 6, 0, 0);
+        manager.createTask(new Task("Inside", "desc", 0, Status.NEW, baseTime.plusHours(1), Duration.ofMinutes(30)));
+        manager.createTask(new Task("Outside", "desc", 0, Status.NEW, baseTime.plusDays(8), Duration.ofMinutes(30)));
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/prioritized?from=" + baseTime + "&to=" + baseTime.plusDays(7)))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        List<Task> tasks = gson.fromJson(response.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(1, tasks.size());
+        assertEquals("Inside", tasks.get(0).getName());
+    }
+
+    @Test
+    void testTimeWindowShouldBePagedByLimitAndCursor() throws Exception {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 6, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            manager.createTask(new Task("Inside " + i, "desc", 0, Status.NEW, baseTime.plusHours(i + 1),
+                    Duration.ofMinutes(30)));
+        }
+        String window = "http://localhost:8080/prioritized?from=" + baseTime + "&to=" + baseTime.plusDays(7);
+
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder().uri(new URI(window + "&limit=2")).GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, first.statusCode());
+        List<Task> page = gson.fromJson(first.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of("Inside 0", "Inside 1"), page.stream().map(Task::getName).toList());
+        String cursor = first.headers().firstValue("X-Next-Cursor").orElseThrow();
+
+        HttpResponse<String> second = client.send(HttpRequest.newBuilder()
+                .uri(new URI(window + "&limit=2&cursor=" + cursor)).GET().build(), HttpResponse.BodyHandlers.ofString());
+        page = gson.fromJson(second.body(), new TypeToken<List<Task>>() {}.getType());
+        assertEquals(List.of("Inside 2"), page.stream().map(Task::getName).toList());
+        assertTrue(second.headers().firstValue("X-Next-Cursor").isEmpty());
+    }
+
+    @Test
+    void testGetPrioritizedTasksWithInvalidWindow() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/prioritized?from=tomorrow"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode());
+    }
 }
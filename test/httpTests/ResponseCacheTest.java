@@ -0,0 +1,184 @@
+package httpTests;
+
+import main.enums.Status;
+import main.http.ResponseCache;
+import main.manager.InMemoryTaskManager;
+import main.manager.Managers;
+import main.models.Epic;
+import main.models.Subtask;
+import main.models.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private static byte[] bytes(String value) {
+        return value.getBytes();
+    }
+
+    @Test
+    void taskEntryShouldLiveUntilTaskChanges() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager);
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        Task other = manager.createTask(new Task("Other", "Desc", 0, Status.NEW, null, null));
+
+        cache.put(task.getId(), cache.stamp(task.getId()), bytes("task"));
+        cache.put(other.getId(), cache.stamp(other.getId()), bytes("other"));
+        manager.updateTask(new Task("Renamed", "Desc", task.getId(), Status.DONE, null, null));
+
+        assertNull(cache.get(task.getId()));
+        assertArrayEquals(bytes("other"), cache.get(other.getId())); // чужое изменение не сбрасывает запись
+        manager.deleteTask(other.getId());
+        assertNull(cache.get(other.getId()));
+    }
+
+    @Test
+    void epicEntryShouldBeDroppedWhenItsSubtasksChange() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager);
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+
+        cache.put(epic.getId(), cache.stamp(epic.getId()), bytes("epic"));
+        manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.NEW, epic.getId(), null, null));
+
+        assertNull(cache.get(epic.getId()));
+    }
+
+    @Test
+    void shouldNotStoreResponseReadBeforeChange() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager);
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+
+        long stamp = cache.stamp(task.getId());
+        long version = manager.getVersion();
+        manager.updateTask(new Task("Renamed", "Desc", task.getId(), Status.NEW, null, null));
+        cache.put(task.getId(), stamp, bytes("stale"));
+        cache.putList("/tasks", version, null, bytes("[stale]"));
+
+        assertNull(cache.get(task.getId()));
+        assertNull(cache.getList("/tasks"));
+    }
+
+    @Test
+    void unrelatedWriteShouldNotBlockStoringTask() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager);
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+
+        long stamp = cache.stamp(task.getId());
+        manager.createTask(new Task("Other", "Desc", 0, Status.NEW, null, null));
+        cache.put(task.getId(), stamp, bytes("task"));
+
+        assertArrayEquals(bytes("task"), cache.get(task.getId()));
+    }
+
+    @Test
+    void rejectedUpdateShouldNotChangeVersionOrDropEntries() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Task task = manager.createTask(new Task("Task", "Desc", 0, Status.NEW, start, Duration.ofMinutes(30)));
+        manager.createTask(new Task("Busy", "Desc", 0, Status.NEW, start.plusHours(1), Duration.ofMinutes(30)));
+
+        cache.put(task.getId(), cache.stamp(task.getId()), bytes("task"));
+        cache.putList("/tasks", manager.getVersion(), null, bytes("[task]"));
+        long version = manager.getVersion();
+        assertThrows(IllegalArgumentException.class, () -> manager.updateTask(new Task("Task", "Desc",
+                task.getId(), Status.NEW, start.plusHours(1), Duration.ofMinutes(30))));
+
+        assertEquals(version, manager.getVersion());
+        assertArrayEquals(bytes("task"), cache.get(task.getId()));
+        assertNotNull(cache.getList("/tasks"));
+    }
+
+    @Test
+    void oneMutationShouldChangeVersionOnce() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager);
+        Epic epic = manager.createEpic(new Epic("Epic", "Desc", 0, Status.NEW));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Desc", 0, Status.NEW, epic.getId(), null, null));
+        cache.put(subtask.getId(), cache.stamp(subtask.getId()), bytes("sub"));
+
+        long version = manager.getVersion();
+        manager.deleteEpic(epic.getId());
+
+        assertEquals(version + 1, manager.getVersion());
+        assertNull(cache.get(subtask.getId())); // подзадачи удалённого эпика тоже сбрасываются
+    }
+
+    @Test
+    void listEntryShouldExpireWithManagerVersion() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager);
+
+        cache.putList("/tasks?limit=1", manager.getVersion(), "1", bytes("[]"));
+        assertEquals("1", cache.getList("/tasks?limit=1").getNextCursor());
+
+        manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        assertNull(cache.getList("/tasks?limit=1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedOverByteLimit() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        ResponseCache cache = new ResponseCache(manager, 8);
+
+        cache.put(1, 0, bytes("aaaa"));
+        cache.put(2, 0, bytes("bbbb"));
+        cache.get(1);
+        cache.put(3, 0, bytes("cccc"));
+
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(3));
+
+        cache.close();
+        manager.createTask(new Task("Task", "Desc", 0, Status.NEW, null, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void frequentTaskShouldNotBeDisplacedByRarerOne() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        Task hot = manager.createTask(new Task("Hot", "Desc", 0, Status.NEW, null, null));
+        Task cold = manager.createTask(new Task("Cold", "Desc", 0, Status.NEW, null, null));
+        ResponseCache cache = new ResponseCache(manager, 4);
+        for (int i = 0; i < 5; i++) {
+            manager.getTask(hot.getId());
+        }
+
+        cache.put(hot.getId(), cache.stamp(hot.getId()), bytes("hhhh"));
+        cache.put(cold.getId(), cache.stamp(cold.getId()), bytes("cccc"));
+
+        assertNotNull(cache.get(hot.getId()));
+        assertNull(cache.get(cold.getId()));
+    }
+
+    @Test
+    void rareTaskShouldBeEvictedBeforeOlderFrequentOne() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(Managers.getDefaultHistory());
+        Task hot = manager.createTask(new Task("Hot", "Desc", 0, Status.NEW, null, null));
+        Task cold = manager.createTask(new Task("Cold", "Desc", 0, Status.NEW, null, null));
+        Task next = manager.createTask(new Task("Next", "Desc", 0, Status.NEW, null, null));
+        ResponseCache cache = new ResponseCache(manager, 8);
+        for (int i = 0; i < 5; i++) {
+            manager.getTask(hot.getId());
+        }
+        manager.getTask(next.getId());
+
+        cache.put(hot.getId(), cache.stamp(hot.getId()), bytes("hhhh"));
+        cache.put(cold.getId(), cache.stamp(cold.getId()), bytes("cccc"));
+        cache.put(next.getId(), cache.stamp(next.getId()), bytes("nnnn"));
+
+        assertNotNull(cache.get(hot.getId()));
+        assertNull(cache.get(cold.getId()));
+        assertNotNull(cache.get(next.getId()));
+    }
+}
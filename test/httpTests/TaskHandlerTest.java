@@ -1,6 +1,8 @@
 package httpTests;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
 import main.enums.Status;
 import main.http.HttpTaskServer;
 import main.manager.Managers;
@@ -14,6 +16,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -119,4 +122,92 @@ class TaskHandlerTest {
         HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
         assertEquals(500, response.statusCode());
     }
+
+    @Test
+    void testGetAllTasksIsStreamedAndMatchesGson() throws Exception {
+        LocalDateTime baseTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 2000; i++) {
+            manager.createTask(new Task("Task " + i, "desc", 0, Status.NEW,
+                    baseTime.plusHours(i), Duration.ofMinutes(15)));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(null));
+        assertEquals(gson.toJson(manager.getAllTasks()), response.body());
+    }
+
+    @Test
+    void testRepeatedGetIsServedFromCacheUntilUpdate() throws Exception {
+        Task task = manager.createTask(new Task("Task", "desc", 0, Status.NEW, null, null));
+        HttpRequest get = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks/" + task.getId()))
+                .GET()
+                .build();
+
+        String first = client.send(get, HttpResponse.BodyHandlers.ofString()).body();
+        assertEquals(first, client.send(get, HttpResponse.BodyHandlers.ofString()).body());
+        assertEquals(gson.toJson(task), first);
+
+        Task updated = new Task("Renamed", "desc", task.getId(), Status.DONE, null, null);
+        client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks"))
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(updated)))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        Task fetched = gson.fromJson(client.send(get, HttpResponse.BodyHandlers.ofString()).body(), Task.class);
+        assertEquals("Renamed", fetched.getName());
+        assertEquals(Status.DONE, fetched.getStatus());
+
+        HttpRequest list = HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks"))
+                .GET()
+                .build();
+        assertEquals(gson.toJson(manager.getAllTasks()), client.send(list, HttpResponse.BodyHandlers.ofString()).body());
+        manager.deleteTask(task.getId());
+        assertEquals("[]", client.send(list, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    @Test
+    void testGetTasksWithLimitCursorAndFields() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            manager.createTask(new Task("Task " + i, "desc", 0, Status.NEW, null, null));
+        }
+
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks?limit=2&fields=id,name"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, first.statusCode());
+        JsonArray items = JsonParser.parseString(first.body()).getAsJsonArray();
+        assertEquals(2, items.size());
+        assertEquals(Set.of("id", "name"), items.get(0).getAsJsonObject().keySet());
+        String cursor = first.headers().firstValue("X-Next-Cursor").orElseThrow();
+
+        HttpResponse<String> second = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks?limit=2&cursor=" + cursor))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        Task[] rest = gson.fromJson(second.body(), Task[].class);
+        assertEquals(1, rest.length);
+        assertEquals("Task 2", rest[0].getName());
+        assertTrue(second.headers().firstValue("X-Next-Cursor").isEmpty(), "Последняя страница неполная");
+    }
+
+    @Test
+    void testGetTasksWithInvalidLimit() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .uri(new URI("http://localhost:8080/tasks?limit=0"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode());
+    }
 }